@@ -2,6 +2,12 @@ plugins {
     id("com.android.application")
 }
 
+// Recipe catalog: src/main/recipes/recipes.json is packed into assets/recipes.catalog at build
+// time by RecipeCatalogTool (src/catalogTool), compiled together with the pure-Java catalog
+// classes from src/main and run on the JVM.
+val recipeCatalogTool: Configuration by configurations.creating
+val recipeCatalogAssets = layout.buildDirectory.dir("generated/recipeCatalog/assets")
+
 android {
     namespace = "com.example.recepiesuggestor"
     compileSdk = 34
@@ -29,6 +35,50 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+    sourceSets {
+        getByName("main") {
+            assets.srcDir(recipeCatalogAssets)
+        }
+        getByName("test") {
+            // The tool's tests round-trip the bundled JSON
+            java.srcDir("src/catalogTool/java")
+            resources.srcDir("src/main/recipes")
+        }
+    }
+}
+
+val compileRecipeCatalogTool by tasks.registering(JavaCompile::class) {
+    source(fileTree("src/main/java") {
+        include(
+            "com/example/recepiesuggestor/Recipe.java",
+            "com/example/recepiesuggestor/data/IngredientSets.java",
+            "com/example/recepiesuggestor/data/IngredientVocabulary.java",
+            "com/example/recepiesuggestor/data/RecipeCatalog.java",
+            "com/example/recepiesuggestor/data/RecipeSource.java"
+        )
+    })
+    source(fileTree("src/catalogTool/java"))
+    classpath = recipeCatalogTool
+    destinationDirectory.set(layout.buildDirectory.dir("intermediates/recipeCatalogTool/classes"))
+    sourceCompatibility = "1.8"
+    targetCompatibility = "1.8"
+    options.encoding = "UTF-8"
+}
+
+val generateRecipeCatalog by tasks.registering(JavaExec::class) {
+    val json = file("src/main/recipes/recipes.json")
+    val catalog = recipeCatalogAssets.map { it.file("recipes.catalog") }
+    inputs.file(json)
+    outputs.file(catalog)
+    classpath = files(compileRecipeCatalogTool) + recipeCatalogTool
+    mainClass.set("com.example.recepiesuggestor.data.RecipeCatalogTool")
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(json.absolutePath, catalog.get().asFile.absolutePath)
+    })
+}
+
+tasks.named("preBuild") {
+    dependsOn(generateRecipeCatalog)
 }
 
 dependencies {
@@ -71,5 +121,9 @@ dependencies {
     implementation("com.google.ai.client.generativeai:generativeai:0.9.0")
 
     implementation("org.apache.opennlp:opennlp-tools:1.9.4")
+
+    recipeCatalogTool("org.json:json:20231013")
+    // android.jar only has stubs of org.json
+    testImplementation("org.json:json:20231013")
     coreLibraryDesugaring("com.android.tools:desugar_jdk_libs:2.0.4")
 }
\ No newline at end of file
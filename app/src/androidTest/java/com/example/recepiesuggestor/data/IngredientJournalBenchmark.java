@@ -0,0 +1,89 @@
+package com.example.recepiesuggestor.data;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.*;
+
+/**
+ * Startup cost of restoring a session from the ingredient journal, with thousands of events
+ * appended and after compaction. Results are written to logcat under "JOURNAL_BENCH".
+ */
+@RunWith(AndroidJUnit4.class)
+public class IngredientJournalBenchmark {
+
+    private static final String[] NAMES = {
+            "milk", "eggs", "butter", "cheese", "tomato", "basil", "onion", "garlic", "carrot", "rice",
+            "pasta", "chicken", "lettuce", "cucumber", "apple", "banana", "bread", "honey", "salt", "pepper",
+    };
+
+    @Test
+    public void benchmark_restoreByEventCount() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        for (int events : new int[]{1_000, 5_000, 20_000}) {
+            File file = File.createTempFile("journal-bench", ".journal", context.getCacheDir());
+            file.delete();
+            try {
+                runBenchmark(file, events);
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    private static void runBenchmark(File file, int events) throws Exception {
+        ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            // Never compact while recording, so the restore has to replay every event
+            IngredientAccumulator recorded = accumulator();
+            IngredientJournal journal = journal(file, writer, Integer.MAX_VALUE);
+            journal.restoreInto(recorded).get();
+            for (int i = 0; i < events; i++) {
+                recorded.addIngredientNames(null, Arrays.asList(NAMES[i % NAMES.length], NAMES[(i * 7) % NAMES.length]));
+                if (i % 500 == 499) recorded.removeIngredientName(NAMES[i % NAMES.length]);
+            }
+            journal.flush().get();
+            long bytes = file.length();
+
+            IngredientAccumulator replayed = accumulator();
+            long start = System.nanoTime();
+            journal(file, writer, Integer.MAX_VALUE).restoreInto(replayed).get();
+            long replayNanos = System.nanoTime() - start;
+            assertEquals(recorded.getCurrentIngredients(), replayed.getCurrentIngredients());
+
+            // restoreInto compacted the file; a second restart only reads the entries
+            IngredientAccumulator compacted = accumulator();
+            start = System.nanoTime();
+            journal(file, writer, Integer.MAX_VALUE).restoreInto(compacted).get();
+            long compactedNanos = System.nanoTime() - start;
+            assertEquals(recorded.getCurrentIngredients(), compacted.getCurrentIngredients());
+
+            Log.i("JOURNAL_BENCH", events + " events (" + bytes / 1024 + " KiB): restore "
+                    + replayNanos / 1_000_000 + " ms | compacted (" + file.length() + " bytes): restore "
+                    + compactedNanos / 1_000_000 + " ms");
+        } finally {
+            writer.shutdownNow();
+        }
+    }
+
+    private static IngredientAccumulator accumulator() {
+        return new IngredientAccumulator(IngredientAccumulator.Policy.DEFAULT, SystemClock::elapsedRealtime);
+    }
+
+    private static IngredientJournal journal(File file, ScheduledExecutorService writer, int compactEvery) {
+        return new IngredientJournal(file, System::currentTimeMillis, writer,
+                IngredientJournal.DEFAULT_FLUSH_DELAY_MS, compactEvery);
+    }
+}
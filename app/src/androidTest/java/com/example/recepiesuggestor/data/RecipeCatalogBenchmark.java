@@ -0,0 +1,114 @@
+package com.example.recepiesuggestor.data;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.recepiesuggestor.Recipe;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Opening a packed recipe catalog of 10k and 100k recipes against holding the same recipes as
+ * objects: open time, heap retained, the index build done before the catalog is published, and
+ * the cost of decoding one recipe for display. Results
+ * are written to logcat under "CATALOG_BENCH".
+ */
+@RunWith(AndroidJUnit4.class)
+public class RecipeCatalogBenchmark {
+
+    @Test
+    public void benchmark_openVersusHeapRecipes() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        for (int size : new int[]{10_000, 100_000}) {
+            File file = File.createTempFile("catalog-bench", ".catalog", context.getCacheDir());
+            try {
+                runBenchmark(file, size, RecipeDatabase.imageNames(context));
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    private static void runBenchmark(File file, int size, RecipeCatalog.ImageNames imageNames) throws Exception {
+        List<Recipe> recipes = recipes(size);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            RecipeCatalog.write(recipes, imageNames, out);
+        }
+        long heldHeap = usedHeap() - heapWithout(recipes);
+
+        long before = usedHeap();
+        long start = SystemClock.elapsedRealtimeNanos();
+        RecipeCatalog catalog = RecipeCatalog.open(file, imageNames);
+        long openNanos = SystemClock.elapsedRealtimeNanos() - start;
+        long catalogHeap = usedHeap() - before;
+        assertEquals(size, catalog.size());
+
+        // What loadCatalog adds before publishing the catalog
+        start = SystemClock.elapsedRealtimeNanos();
+        new RecipeIndex(catalog);
+        new RecipeBitsets(catalog);
+        long indexNanos = SystemClock.elapsedRealtimeNanos() - start;
+
+        start = SystemClock.elapsedRealtimeNanos();
+        Recipe shown = catalog.getRecipe(size / 2);
+        long decodeNanos = SystemClock.elapsedRealtimeNanos() - start;
+        assertEquals("Recipe " + size / 2, shown.getTitle());
+        assertEquals(RecipeDatabase.DEFAULT_IMAGE, shown.getImageResourceId());
+
+        Log.i("CATALOG_BENCH", size + " recipes, " + file.length() / 1024 + " KiB file: open "
+                + openNanos / 1000 + " us, " + catalogHeap / 1024 + " KiB heap, index and bitsets "
+                + indexNanos / 1_000_000 + " ms | as objects "
+                + heldHeap / 1024 + " KiB heap | decode one recipe " + decodeNanos / 1000 + " us");
+    }
+
+    /** Synthetic recipes with realistic string lengths and skewed ingredient use. */
+    private static List<Recipe> recipes(int size) {
+        Random random = new Random(size);
+        List<Recipe> recipes = new ArrayList<>(size);
+        for (int r = 0; r < size; r++) {
+            StringBuilder ingredients = new StringBuilder();
+            int n = 3 + random.nextInt(6);
+            for (int i = 0; i < n; i++) {
+                if (i > 0) ingredients.append(',');
+                ingredients.append("ingredient ").append((int) (2_000 * Math.pow(random.nextDouble(), 3)));
+            }
+            StringBuilder instructions = new StringBuilder();
+            for (int step = 1; step <= 5; step++) {
+                instructions.append(step).append(". Step ").append(step).append(" of recipe ").append(r).append('\n');
+            }
+            recipes.add(new Recipe("Recipe " + r, "A synthetic recipe, number " + r, RecipeDatabase.DEFAULT_IMAGE,
+                    ingredients.toString(), instructions.toString()));
+        }
+        return recipes;
+    }
+
+    /** Used heap after dropping {@code recipes}; the caller's reference must be its last. */
+    private static long heapWithout(List<Recipe> recipes) {
+        recipes.clear();
+        return usedHeap();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            SystemClock.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.recepiesuggestor.models;
+
+import android.content.Context;
+import android.os.Debug;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.tokenize.SimpleTokenizer;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Cold-load cost of the POS model: parsing the OpenNLP archive from assets versus mapping the
+ * compact copy. Needs a POS model in assets; results are written to logcat under "NLP_BENCH".
+ */
+@RunWith(AndroidJUnit4.class)
+public class CompactPosModelBenchmark {
+
+    private static final String ASSET = "en-pos-perceptron.bin";
+    private static final int ITERATIONS = 3;
+
+    @Test
+    public void benchmark_archiveVersusCompactLoad() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        assumeTrue("no " + ASSET + " in assets", hasAsset(context));
+
+        POSModel archive = loadArchive(context);
+        assumeTrue("model type has no compact form", CompactPosModel.isSupported(archive));
+        File file = File.createTempFile("pos-bench", ".cpos", context.getCacheDir());
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+                CompactPosModel.write(archive, ASSET, out);
+            }
+            String[][] sentences = {
+                    SimpleTokenizer.INSTANCE.tokenize("A wooden cutting board holds a red bell pepper and two tomatoes."),
+                    SimpleTokenizer.INSTANCE.tokenize("The refrigerator shelves contain milk, eggs, butter and cheese."),
+            };
+            assertTrue(CompactPosModel.tagsAgree(archive, loadCompact(file), sentences));
+
+            long archiveNanos = 0, archiveBytes = 0, compactNanos = 0, compactBytes = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                Runtime.getRuntime().gc();
+                long alloc = allocatedBytes();
+                long start = System.nanoTime();
+                loadArchive(context);
+                archiveNanos += System.nanoTime() - start;
+                archiveBytes += allocatedBytes() - alloc;
+
+                Runtime.getRuntime().gc();
+                alloc = allocatedBytes();
+                start = System.nanoTime();
+                loadCompact(file);
+                compactNanos += System.nanoTime() - start;
+                compactBytes += allocatedBytes() - alloc;
+            }
+            Log.i("NLP_BENCH", "POS model load, archive: " + archiveNanos / ITERATIONS / 1_000_000 + " ms, "
+                    + archiveBytes / ITERATIONS / 1024 + " KiB allocated | compact (" + file.length() / 1024
+                    + " KiB): " + compactNanos / ITERATIONS / 1_000_000 + " ms, "
+                    + compactBytes / ITERATIONS / 1024 + " KiB allocated");
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static boolean hasAsset(Context context) {
+        try (InputStream ignored = context.getAssets().open(ASSET)) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static POSModel loadArchive(Context context) throws IOException {
+        try (InputStream in = context.getAssets().open(ASSET)) {
+            return new POSModel(in);
+        }
+    }
+
+    private static POSModel loadCompact(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            return CompactPosModel.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private static long allocatedBytes() {
+        String stat = Debug.getRuntimeStat("art.gc.bytes-allocated");
+        return stat == null ? 0 : Long.parseLong(stat);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.recepiesuggestor.models;
+
+import android.os.Debug;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Throughput of {@link FallbackNounExtractor} against the original per-call implementation.
+ * Run on a device; numbers are written to logcat under "NLP_BENCH".
+ */
+@RunWith(AndroidJUnit4.class)
+public class FallbackNounExtractorBenchmark {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2000;
+
+    private static final String[] DESCRIPTIONS = {
+            "A wooden cutting board holds a red bell pepper, two tomatoes and a bunch of fresh basil.",
+            "The image shows an open refrigerator with shelves of milk, eggs, butter and cheese.",
+            "A pantry shelf with cans of beans, bags of rice, a bottle of olive oil and boxes of cereal.",
+            "There are several apples and oranges in a wicker basket.",
+            "A package of chicken breasts and a container of yogurt on the top shelf of a fridge.",
+            "Rice, beans and salsa in a burrito bowl.",
+    };
+
+    @Test
+    public void benchmark_fallbackExtraction() {
+        FallbackNounExtractor extractor = new FallbackNounExtractor();
+        for (String d : DESCRIPTIONS) {
+            assertEquals(extractLegacy(d), extractor.extract(d));
+        }
+
+        for (int i = 0; i < WARMUP; i++) extractLegacy(DESCRIPTIONS[i % DESCRIPTIONS.length]);
+        long allocBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) extractLegacy(DESCRIPTIONS[i % DESCRIPTIONS.length]);
+        long legacyNanos = (System.nanoTime() - start) / ITERATIONS;
+        long legacyBytes = (allocatedBytes() - allocBefore) / ITERATIONS;
+
+        for (int i = 0; i < WARMUP; i++) extractor.extract(DESCRIPTIONS[i % DESCRIPTIONS.length]);
+        allocBefore = allocatedBytes();
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) extractor.extract(DESCRIPTIONS[i % DESCRIPTIONS.length]);
+        long newNanos = (System.nanoTime() - start) / ITERATIONS;
+        long newBytes = (allocatedBytes() - allocBefore) / ITERATIONS;
+
+        Log.i("NLP_BENCH", "fallback legacy: " + legacyNanos / 1000 + " us/call, " + legacyBytes + " B/call"
+                + " | precompiled: " + newNanos / 1000 + " us/call, " + newBytes + " B/call");
+        assertTrue(newNanos < legacyNanos);
+    }
+
+    // FallbackNounExtractor's phrase patterns; the equality check above catches any drift
+    private static final String[] PATTERN_SOURCES = {
+            "holds? (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
+            "contains? (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
+            "on (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
+            "next to (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
+            "with (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
+            "there (?:is|are) (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
+            "(?:a |an |the )([\\w\\s-]+?)(?:\\.|,| and |$)"
+    };
+
+    /** The implementation FallbackNounExtractor replaced, regex compiled on every call. */
+    private static List<String> extractLegacy(String text) {
+        List<String> nouns = new java.util.ArrayList<>();
+        if (text == null || text.isEmpty()) return nouns;
+        // small stopword set
+        java.util.Set<String> stop = new java.util.HashSet<>(java.util.Arrays.asList(
+                "a", "an", "the", "and", "or", "but", "with", "without", "of", "in", "on", "for",
+                "to", "from", "by", "is", "are", "was", "were", "be", "been", "this", "that", "these",
+                "those", "it", "its", "as", "at", "about", "into", "over", "under", "other", "some", "next"
+        ));
+
+        java.util.LinkedHashSet<String> set = new java.util.LinkedHashSet<>();
+
+        for (String pat : PATTERN_SOURCES) {
+            try {
+                java.util.regex.Pattern p = java.util.regex.Pattern.compile(pat, java.util.regex.Pattern.CASE_INSENSITIVE);
+                java.util.regex.Matcher m = p.matcher(text);
+                while (m.find()) {
+                    String g = m.group(1);
+                    if (g == null) continue;
+                    String cleaned = g.trim();
+                    // split on ' and ' to get multiple items inside the group
+                    String[] parts = cleaned.split("\\band\\b|,|;|\\band other\\b");
+                    for (String part : parts) {
+                        String candidate = part.trim().replaceAll("[^A-Za-z0-9\\s-]", "");
+                        if (candidate.isEmpty()) continue;
+                        // take last token as likely noun head
+                        String[] tokens = candidate.split("\\s+");
+                        String head = tokens[tokens.length - 1];
+                        String lc = head.toLowerCase();
+                        if (head.length() > 1 && !stop.contains(lc) && !lc.matches("^[0-9]+$")) {
+                            set.add(head);
+                        }
+                    }
+                }
+            } catch (Exception ignored) {
+            }
+        }
+
+        // As a final fallback, pick words longer than 2 characters that aren't stopwords
+        if (set.isEmpty()) {
+            String[] words = text.split("[^A-Za-z0-9]+");
+            for (String w : words) {
+                if (w == null) continue;
+                String s = w.trim();
+                if (s.length() <= 2) continue;
+                String lc = s.toLowerCase();
+                if (stop.contains(lc)) continue;
+                if (lc.matches("^[0-9]+$")) continue;
+                set.add(s);
+            }
+        }
+
+        nouns.addAll(set);
+        return nouns;
+    }
+
+    private static long allocatedBytes() {
+        String stat = Debug.getRuntimeStat("art.gc.bytes-allocated");
+        return stat == null ? 0 : Long.parseLong(stat);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.recepiesuggestor.models;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Multi-threaded throughput of {@link NLPTagger#extractNouns}, from one thread up to one per
+ * core, and the batch call against one call per sentence. Needs a POS model in assets;
+ * results are written to logcat under "NLP_BENCH".
+ */
+@RunWith(AndroidJUnit4.class)
+public class NLPTaggerBenchmark {
+
+    private static final long RUN_MS = 2000;
+
+    private static final String[] SENTENCES = {
+            "A wooden cutting board holds a red bell pepper, two tomatoes and a bunch of fresh basil.",
+            "The image shows an open refrigerator with shelves of milk, eggs, butter and cheese.",
+            "A pantry shelf with cans of beans, bags of rice, a bottle of olive oil and boxes of cereal.",
+            "Fresh strawberries and blueberries in a small white bowl on a table.",
+    };
+
+    @Test
+    public void benchmark_sentencesPerSecondByThreadCount() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        NLPTagger tagger = NLPTagger.get(context);
+        tagger.init();
+        assumeTrue("no POS model in assets", tagger.hasPosModel());
+
+        // Measure tagging itself; the sentence memo would turn repeats into cache hits
+        SentenceNounCache cache = tagger.getSentenceCache();
+        tagger.setSentenceCache(null);
+        try {
+            runBenchmark(tagger);
+        } finally {
+            tagger.setSentenceCache(cache);
+        }
+    }
+
+    @Test
+    public void benchmark_batchVersusSingleCalls() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        NLPTagger tagger = NLPTagger.get(context);
+        tagger.init();
+        assumeTrue("no POS model in assets", tagger.hasPosModel());
+
+        SentenceNounCache cache = tagger.getSentenceCache();
+        tagger.setSentenceCache(null);
+        try {
+            List<String> batch = Arrays.asList(SENTENCES);
+            Set<String> single = new LinkedHashSet<>();
+            for (String sentence : SENTENCES) single.addAll(tagger.extractNouns(sentence));
+            assertEquals(new ArrayList<>(single), tagger.extractNouns(batch));
+
+            int rounds = 500;
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                for (String sentence : SENTENCES) tagger.extractNouns(sentence);
+            }
+            long singleNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) tagger.extractNouns(batch);
+            long batchNanos = System.nanoTime() - start;
+            Log.i("NLP_BENCH", "POS tagging, " + SENTENCES.length + " sentences: single calls "
+                    + singleNanos / rounds / 1000 + " us, batch " + batchNanos / rounds / 1000 + " us");
+        } finally {
+            tagger.setSentenceCache(cache);
+        }
+    }
+
+    private static void runBenchmark(NLPTagger tagger) throws Exception {
+        // Warm up the pool and the JIT
+        for (int i = 0; i < 200; i++) tagger.extractNouns(SENTENCES[i % SENTENCES.length]);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        double single = 0;
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            double rate = sentencesPerSecond(tagger, threads);
+            if (threads == 1) single = rate;
+            Log.i("NLP_BENCH", "POS tagging, " + threads + " thread(s): "
+                    + Math.round(rate) + " sentences/s (x" + String.format("%.2f", rate / single) + ")");
+        }
+        assertTrue(single > 0);
+    }
+
+    private static double sentencesPerSecond(NLPTagger tagger, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicLong done = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] window = new long[2];
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int i = offset;
+                long deadline = window[1];
+                while (System.nanoTime() < deadline) {
+                    tagger.extractNouns(SENTENCES[i++ % SENTENCES.length]);
+                    done.incrementAndGet();
+                }
+            });
+        }
+        window[0] = System.nanoTime();
+        window[1] = window[0] + TimeUnit.MILLISECONDS.toNanos(RUN_MS);
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(RUN_MS + 10_000, TimeUnit.MILLISECONDS));
+        return done.get() * 1000.0 / RUN_MS;
+    }
+}
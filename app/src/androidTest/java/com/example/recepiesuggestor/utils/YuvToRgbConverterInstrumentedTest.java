@@ -0,0 +1,148 @@
+package com.example.recepiesuggestor.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.ImageFormat;
+import android.graphics.Rect;
+import android.graphics.YuvImage;
+import android.os.Debug;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks {@link YuvToRgbConverter} against the old JPEG round-trip and benchmarks both paths.
+ * Run on a device; benchmark numbers are written to logcat under "YUV_BENCH".
+ */
+@RunWith(AndroidJUnit4.class)
+public class YuvToRgbConverterInstrumentedTest {
+
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 30;
+
+    @Test
+    public void directConversion_matchesJpegRoundTrip() {
+        int w = 640, h = 480;
+        byte[] nv21 = syntheticNv21(w, h);
+        Bitmap reference = bitmapFromNv21ViaJpeg(nv21, w, h);
+        int[] expected = new int[w * h];
+        reference.getPixels(expected, 0, w, 0, 0, w, h);
+
+        int[] actual = new int[w * h];
+        byte[][] uv = chromaViews(nv21, w, h);
+        YuvToRgbConverter.yuv420ToArgb(nv21, w, 1, uv[0], uv[1], w, 2, w, h, actual);
+
+        // Quality-100 JPEG is not lossless, so compare per channel with a small tolerance
+        long totalError = 0;
+        int maxError = 0;
+        for (int i = 0; i < expected.length; i++) {
+            for (int shift = 0; shift <= 16; shift += 8) {
+                int d = Math.abs(((expected[i] >> shift) & 0xFF) - ((actual[i] >> shift) & 0xFF));
+                totalError += d;
+                maxError = Math.max(maxError, d);
+            }
+        }
+        double meanError = totalError / (3.0 * expected.length);
+        Log.i("YUV_BENCH", "equivalence: mean abs error " + meanError + ", max " + maxError);
+        assertTrue("mean error " + meanError, meanError < 2.0);
+        assertTrue("max error " + maxError, maxError <= 16);
+    }
+
+    @Test
+    public void benchmark_640x480() {
+        benchmark(640, 480);
+    }
+
+    @Test
+    public void benchmark_1080p() {
+        benchmark(1920, 1080);
+    }
+
+    private void benchmark(int w, int h) {
+        byte[] nv21 = syntheticNv21(w, h);
+
+        // Old path: copy planes into a fresh NV21 array, JPEG encode, decode
+        for (int i = 0; i < WARMUP; i++) jpegPath(nv21, w, h).recycle();
+        long allocBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) jpegPath(nv21, w, h).recycle();
+        long jpegNanos = (System.nanoTime() - start) / ITERATIONS;
+        long jpegBytes = (allocatedBytes() - allocBefore) / ITERATIONS;
+
+        // New path: direct conversion into a reused int[] and Bitmap
+        byte[][] uv = chromaViews(nv21, w, h);
+        int[] pixels = new int[w * h];
+        Bitmap bitmap = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+        for (int i = 0; i < WARMUP; i++) directPath(nv21, uv, w, h, pixels, bitmap);
+        allocBefore = allocatedBytes();
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) directPath(nv21, uv, w, h, pixels, bitmap);
+        long directNanos = (System.nanoTime() - start) / ITERATIONS;
+        long directBytes = (allocatedBytes() - allocBefore) / ITERATIONS;
+
+        Log.i("YUV_BENCH", w + "x" + h
+                + " jpeg: " + jpegNanos / 1000 + " us/frame, " + jpegBytes + " B/frame"
+                + " | direct: " + directNanos / 1000 + " us/frame, " + directBytes + " B/frame");
+        assertTrue(directBytes < jpegBytes);
+    }
+
+    private static Bitmap jpegPath(byte[] planes, int w, int h) {
+        byte[] nv21 = new byte[planes.length];
+        System.arraycopy(planes, 0, nv21, 0, planes.length);
+        return bitmapFromNv21ViaJpeg(nv21, w, h);
+    }
+
+    /** The conversion ImageUtils used before YuvToRgbConverter: NV21 -> quality-100 JPEG -> Bitmap. */
+    private static Bitmap bitmapFromNv21ViaJpeg(byte[] nv21, int width, int height) {
+        YuvImage yuvImage = new YuvImage(nv21, ImageFormat.NV21, width, height, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        yuvImage.compressToJpeg(new Rect(0, 0, yuvImage.getWidth(), yuvImage.getHeight()), 100, out);
+        byte[] imageBytes = out.toByteArray();
+        return BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length);
+    }
+
+    private static void directPath(byte[] nv21, byte[][] uv, int w, int h, int[] pixels, Bitmap bitmap) {
+        YuvToRgbConverter.yuv420ToArgb(nv21, w, 1, uv[0], uv[1], w, 2, w, h, pixels);
+        bitmap.setPixels(pixels, 0, w, 0, 0, w, h);
+    }
+
+    /** Splits NV21 chroma the way CameraX exposes it: U and V views over the interleaved plane, pixel stride 2. */
+    private static byte[][] chromaViews(byte[] nv21, int w, int h) {
+        int ySize = w * h;
+        byte[] v = new byte[nv21.length - ySize];
+        byte[] u = new byte[v.length - 1];
+        System.arraycopy(nv21, ySize, v, 0, v.length);
+        System.arraycopy(nv21, ySize + 1, u, 0, u.length);
+        return new byte[][]{u, v};
+    }
+
+    /** Smooth gradients so JPEG quantisation error stays small. */
+    private static byte[] syntheticNv21(int w, int h) {
+        byte[] nv21 = new byte[w * h * 3 / 2];
+        for (int r = 0; r < h; r++) {
+            for (int c = 0; c < w; c++) {
+                nv21[r * w + c] = (byte) (16 + (c + r) * 219 / (w + h));
+            }
+        }
+        int uvStart = w * h;
+        for (int r = 0; r < h / 2; r++) {
+            for (int c = 0; c < w / 2; c++) {
+                nv21[uvStart + r * w + c * 2] = (byte) (64 + c * 128 / (w / 2));     // V
+                nv21[uvStart + r * w + c * 2 + 1] = (byte) (64 + r * 128 / (h / 2)); // U
+            }
+        }
+        return nv21;
+    }
+
+    private static long allocatedBytes() {
+        String stat = Debug.getRuntimeStat("art.gc.bytes-allocated");
+        return stat == null ? 0 : Long.parseLong(stat);
+    }
+}
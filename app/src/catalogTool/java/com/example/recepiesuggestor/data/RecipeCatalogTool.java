@@ -0,0 +1,104 @@
+package com.example.recepiesuggestor.data;
+
+import com.example.recepiesuggestor.Recipe;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Build-time converter from the recipe JSON to the packed {@link RecipeCatalog} the app maps
+ * from assets. Runs on the JVM from the generateRecipeCatalog Gradle task:
+ * <pre>
+ * RecipeCatalogTool &lt;recipes.json&gt; &lt;recipes.catalog&gt;
+ * </pre>
+ *
+ * The JSON is an array of objects with the fields {@code RecipeParser} reads (title,
+ * description, ingredients as a comma-separated string, instructions) plus an the full resource name of a drawable ("android:drawable/sym_def_app_icon"). Image names are stored as they are and resolved by the app at runtime.
+ */
+public final class RecipeCatalogTool {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private RecipeCatalogTool() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: RecipeCatalogTool <recipes.json> <recipes.catalog>");
+            System.exit(2);
+        }
+        File json = new File(args[0]);
+        File catalog = new File(args[1]);
+        File dir = catalog.getAbsoluteFile().getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Could not create " + dir);
+        int count;
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(catalog))) {
+            count = convert(new String(Files.readAllBytes(json.toPath()), UTF_8), out);
+        }
+        System.out.println("Wrote " + count + " recipes to " + catalog);
+    }
+
+    /** Writes the recipes of {@code json} as a catalog to {@code out}; returns how many. */
+    static int convert(String json, OutputStream out) throws IOException {
+        List<String> images = new ArrayList<>();
+        List<Recipe> recipes = parse(json, images);
+        RecipeCatalog.write(recipes, new RecipeCatalog.ImageNames() {
+            @Override
+            public String nameOf(int resourceId) {
+                return resourceId > 0 ? images.get(resourceId - 1) : null;
+            }
+
+            @Override
+            public int idOf(String name) {
+                throw new UnsupportedOperationException("Image names are resolved by the app");
+            }
+        }, out);
+        return recipes.size();
+    }
+
+    /**
+     * Parses the recipe array. Each distinct image name gets a placeholder id, its position in
+     * {@code images} plus one; recipes without an image get 0.
+     *
+     * @throws IOException naming the offending recipe if the JSON is malformed or a field is missing
+     */
+    static List<Recipe> parse(String json, List<String> images) throws IOException {
+        JSONArray array;
+        try {
+            array = new JSONArray(json);
+        } catch (JSONException e) {
+            throw new IOException("Recipe JSON is not an array", e);
+        }
+        List<Recipe> recipes = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            try {
+                JSONObject recipe = array.getJSONObject(i);
+                String image = recipe.optString("image", "");
+                int imageId = 0;
+                if (!image.isEmpty()) {
+                    int known = images.indexOf(image);
+                    if (known < 0) {
+                        images.add(image);
+                        known = images.size() - 1;
+                    }
+                    imageId = known + 1;
+                }
+                recipes.add(new Recipe(recipe.getString("title"), recipe.getString("description"), imageId,
+                        recipe.getString("ingredients"), recipe.getString("instructions")));
+            } catch (JSONException e) {
+                throw new IOException("Recipe " + i + ": " + e.getMessage(), e);
+            }
+        }
+        return recipes;
+    }
+}
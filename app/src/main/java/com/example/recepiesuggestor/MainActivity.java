@@ -16,6 +16,7 @@ import androidx.camera.view.PreviewView;
 
 import com.example.recepiesuggestor.config.ApiKeyManager;
 import com.example.recepiesuggestor.data.IngredientAccumulator;
+import com.example.recepiesuggestor.data.IngredientJournal;
 import com.example.recepiesuggestor.services.RecipeMatchingService;
 import com.example.recepiesuggestor.services.SpeechRecognitionService;
 import com.example.recepiesuggestor.ui.CameraXController;
@@ -43,27 +44,28 @@ public class MainActivity extends AppCompatActivity implements
     private SpeechRecognitionService speechService;
 
     private final Handler accumulatorHandler = new Handler(Looper.getMainLooper());
-    private final Runnable accumulatorPoller = new Runnable() {
-        @Override
-        public void run() {
-            try {
-                java.util.Map<String,String> map = IngredientAccumulator.getInstance().getDetectedIngredientsMap();
-                StringBuilder sb = new StringBuilder();
-                sb.append("detectedIngredients = {\n");
-                for (java.util.Map.Entry<String,String> e : map.entrySet()) {
-                    sb.append("  ").append(e.getKey()).append(" : ").append(e.getValue()).append("\n");
-                }
-                sb.append("}");
-                Log.d("INGREDIENTS_DEBUG", sb.toString());
-
-                // Note: Recipes only update when user says "Update" voice command
-                // Automatic recipe updates disabled - ingredients tracked but not triggering recipe refresh
-            } catch (Exception e) {
-                Log.e("ACC_POLL", "Failed to read accumulator", e);
+    // Pushed by the accumulator on every change instead of polling it
+    private final IngredientAccumulator.ChangeListener accumulatorListener = change ->
+            accumulatorHandler.post(() -> logIngredients(change));
+
+    private void logIngredients(IngredientAccumulator.Change change) {
+        try {
+            java.util.Map<String,String> map = change.snapshot.getIngredientsMap();
+            StringBuilder sb = new StringBuilder();
+            sb.append("detectedIngredients v").append(change.snapshot.version)
+                    .append(" (+").append(change.added).append(" -").append(change.removed).append(") = {\n");
+            for (java.util.Map.Entry<String,String> e : map.entrySet()) {
+                sb.append("  ").append(e.getKey()).append(" : ").append(e.getValue()).append("\n");
             }
-            accumulatorHandler.postDelayed(this, 2000);
+            sb.append("}");
+            Log.d("INGREDIENTS_DEBUG", sb.toString());
+
+            // Note: Recipes only update when user says "Update" voice command
+            // Automatic recipe updates disabled - ingredients tracked but not triggering recipe refresh
+        } catch (Exception e) {
+            Log.e("ACC_LISTEN", "Failed to read accumulator change", e);
         }
-    };
+    }
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -79,6 +81,9 @@ public class MainActivity extends AppCompatActivity implements
         recipeAdapter = new RecipeAdapter(recipeList, this);
         recyclerView.setAdapter(recipeAdapter);
 
+        // Bring back the ingredients of the last session; replayed off the UI thread
+        IngredientJournal.getInstance(this).restoreInto(IngredientAccumulator.getInstance());
+
         // Initialize recipe matching service
         recipeMatchingService = RecipeMatchingService.getInstance();
         recipeMatchingService.initialize(this);
@@ -186,17 +191,28 @@ public class MainActivity extends AppCompatActivity implements
     @Override
     protected void onStart() {
         super.onStart();
-        accumulatorHandler.post(accumulatorPoller);
+        IngredientAccumulator.getInstance().addChangeListener(accumulatorListener);
     }
 
     @Override
     protected void onStop() {
         super.onStop();
-        accumulatorHandler.removeCallbacks(accumulatorPoller);
+        IngredientAccumulator.getInstance().removeChangeListener(accumulatorListener);
+        accumulatorHandler.removeCallbacksAndMessages(null);
+        // The process may be killed while stopped; don't leave the last batch pending
+        IngredientJournal.getInstance(this).flush();
         if (speechService != null) {
             speechService.stopListening();
         }
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (cameraController != null) {
+            cameraController.shutdown();
+        }
+    }
+
 
 }
@@ -1,74 +1,423 @@
 package com.example.recepiesuggestor.data;
 
 import android.content.Context;
-import android.widget.Toast;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * App-wide set of detected ingredients, deduplicated case-insensitively in first-seen order.
+ *
+ * Every sighting adds one to an entry's score, which halves every {@link Policy#halfLifeMs}.
+ * An entry is reported once its score reaches {@link Policy#reportThreshold}, so a one-off
+ * misdetection never reaches a prompt, and it is evicted once the score decays below
+ * {@link Policy#evictThreshold}. At most {@link Policy#capacity} entries are tracked; the
+ * weakest goes first.
+ *
+ * The state is an immutable {@link Snapshot} swapped in with compare-and-set, so readers never
+ * take a lock and never block the describer thread that adds ingredients. Every change bumps
+ * the snapshot version; changes to the reported set are pushed to {@link ChangeListener}s as
+ * an add/remove delta.
+ */
 public class IngredientAccumulator {
 
+    /** Scoring and eviction settings. */
+    public static final class Policy {
+        /**
+         * Session scale: a user scans the fridge, then the pantry, then asks for recipes, so a
+         * confirmed ingredient must outlive the whole walk. Two sightings within 15 minutes
+         * confirm an ingredient, which then stays reported for about 45 minutes after its last
+         * sighting (score 2 halving to the 0.25 floor); a single sighting is dropped after 30.
+         */
+        public static final Policy DEFAULT = new Policy(15 * 60_000, 1.5, 0.25, 64);
+
+        public final long halfLifeMs;
+        public final double reportThreshold;
+        public final double evictThreshold;
+        public final int capacity;
+
+        public Policy(long halfLifeMs, double reportThreshold, double evictThreshold, int capacity) {
+            if (halfLifeMs <= 0) throw new IllegalArgumentException("halfLifeMs must be > 0");
+            if (evictThreshold <= 0 || evictThreshold > reportThreshold) {
+                throw new IllegalArgumentException("need 0 < evictThreshold <= reportThreshold");
+            }
+            if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+            this.halfLifeMs = halfLifeMs;
+            this.reportThreshold = reportThreshold;
+            this.evictThreshold = evictThreshold;
+            this.capacity = capacity;
+        }
+    }
+
+    /** Monotonic milliseconds; SystemClock.elapsedRealtime on the device. */
+    public interface Clock {
+        long now();
+    }
+
+    /** Sighting statistics of one ingredient. Immutable. */
+    public static final class Entry {
+        public final String name;
+        public final int hits;
+        public final long firstSeen;
+        public final long lastSeen;
+        /** Whether the score has reached the report threshold; stays set until eviction. */
+        public final boolean confirmed;
+        // Score as of lastSeen
+        final double score;
+
+        Entry(String name, int hits, long firstSeen, long lastSeen, double score, boolean confirmed) {
+            this.name = name;
+            this.hits = hits;
+            this.firstSeen = firstSeen;
+            this.lastSeen = lastSeen;
+            this.score = score;
+            this.confirmed = confirmed;
+        }
+
+        /** The decayed score at time {@code now}. */
+        public double scoreAt(long now, Policy policy) {
+            long age = Math.max(0, now - lastSeen);
+            return score * Math.pow(0.5, (double) age / policy.halfLifeMs);
+        }
+
+        Entry hit(long now, Policy policy) {
+            double next = scoreAt(now, policy) + 1;
+            return new Entry(name, hits + 1, firstSeen, Math.max(now, lastSeen), next,
+                    confirmed || next >= policy.reportThreshold);
+        }
+
+        /** When the score decays below the eviction threshold. */
+        long evictAt(Policy policy) {
+            double halvings = Math.log(score / policy.evictThreshold) / Math.log(2);
+            return lastSeen + (long) Math.ceil(Math.max(0, halvings) * policy.halfLifeMs);
+        }
+    }
+
+    /** Immutable view of the accumulator at one version. */
+    public static final class Snapshot {
+        public final long version;
+        // Every tracked entry, confirmed or not, by lower-case key
+        private final Map<String, Entry> entries;
+        // Confirmed entries only: lower-case key -> first-seen casing
+        private final Map<String, String> ingredients;
+        private final Set<String> names;
+        // Earliest time an entry is due for eviction
+        private final long nextEviction;
+
+        Snapshot(long version, Map<String, Entry> entries, Policy policy) {
+            this.version = version;
+            this.entries = Collections.unmodifiableMap(entries);
+            Map<String, String> reported = new LinkedHashMap<>();
+            long eviction = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                if (e.getValue().confirmed) reported.put(e.getKey(), e.getValue().name);
+                eviction = Math.min(eviction, e.getValue().evictAt(policy));
+            }
+            this.ingredients = Collections.unmodifiableMap(reported);
+            this.names = Collections.unmodifiableSet(new LinkedHashSet<>(reported.values()));
+            this.nextEviction = eviction;
+        }
+
+        /** Reported ingredient names in first-seen order and casing. */
+        public Set<String> getIngredients() {
+            return names;
+        }
+
+        /** Reported ingredients: lower-case key to first-seen casing. */
+        public Map<String, String> getIngredientsMap() {
+            return ingredients;
+        }
+
+        /** Statistics for a tracked ingredient, reported or not; null if unknown. */
+        public Entry getEntry(String name) {
+            return name == null ? null : entries.get(key(name.trim()));
+        }
+
+        public boolean contains(String name) {
+            return name != null && ingredients.containsKey(key(name.trim()));
+        }
+
+        /** Number of reported ingredients. */
+        public int size() {
+            return ingredients.size();
+        }
+
+        /** Every tracked entry, reported or not. */
+        java.util.Collection<Entry> getEntries() {
+            return entries.values();
+        }
+
+        /** Number of tracked ingredients, including those not yet reported. */
+        public int getTrackedCount() {
+            return entries.size();
+        }
+    }
+
+    /** One published change: the ingredients added and removed to reach {@link #snapshot}. */
+    public static final class Change {
+        public final List<String> added;
+        public final List<String> removed;
+        public final Snapshot snapshot;
+
+        Change(List<String> added, List<String> removed, Snapshot snapshot) {
+            this.added = Collections.unmodifiableList(added);
+            this.removed = Collections.unmodifiableList(removed);
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * Called on the thread that made the change, after the new snapshot is visible. Changes
+     * from concurrent writers may arrive out of order; compare {@code snapshot.version}.
+     */
+    public interface ChangeListener {
+        void onIngredientsChanged(Change change);
+    }
+
+    private interface Mutation {
+        /** Edits {@code entries} in place; returns whether anything changed. */
+        boolean apply(Map<String, Entry> entries, long now);
+    }
+
     private static IngredientAccumulator instance;
 
-    // Use a synchronized Set to ensure thread-safe operations
-    private final Map<String, String> detectedIngredients =
-            Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Policy policy;
+    private final Clock clock;
+    private final AtomicReference<Snapshot> state;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Persists sightings and removals; null when not attached
+    private volatile IngredientJournal journal;
 
-    private IngredientAccumulator() {}
+    IngredientAccumulator(Policy policy, Clock clock) {
+        this.policy = policy;
+        this.clock = clock;
+        this.state = new AtomicReference<>(new Snapshot(0, new LinkedHashMap<String, Entry>(), policy));
+    }
 
     public static synchronized IngredientAccumulator getInstance() {
         if (instance == null) {
-            instance = new IngredientAccumulator();
+            instance = new IngredientAccumulator(Policy.DEFAULT, android.os.SystemClock::elapsedRealtime);
         }
         return instance;
     }
 
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    Clock getClock() {
+        return clock;
+    }
+
+    /** Records every later change in {@code journal}; null detaches. See {@link IngredientJournal#restoreInto}. */
+    void setJournal(IngredientJournal journal) {
+        this.journal = journal;
+    }
+
     public void addIngredientName(Context context, String ingredientName) {
         if (ingredientName == null) return;
-        String trimmed = ingredientName.trim();
-        if (trimmed.isEmpty()) return;
-        String key = trimmed.toLowerCase(java.util.Locale.ROOT);
-        boolean added = false;
-        synchronized (detectedIngredients) {
-            if (!detectedIngredients.containsKey(key)) {
-                detectedIngredients.put(key, trimmed); // store first-seen casing
-                added = true;
-            }
-        }
-        // Do not show Toasts here — UI will poll or listen to accumulator for updates.
+        addIngredientNames(context, Collections.singletonList(ingredientName));
     }
 
-    /** Add multiple ingredient names (dedupes case-insensitively). */
+    /**
+     * Records one sighting of each name (dedupes case-insensitively) as one change. No Toasts
+     * here; the UI listens to the accumulator for updates.
+     */
     public void addIngredientNames(Context context, List<String> names) {
         if (names == null || names.isEmpty()) return;
-        for (String n : names) addIngredientName(context, n);
+        // One sighting per name and batch
+        final List<String> sighted = new ArrayList<>(names.size());
+        Set<String> keys = new java.util.HashSet<>();
+        for (String name : names) {
+            if (name == null) continue;
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty() && keys.add(key(trimmed))) sighted.add(trimmed);
+        }
+        if (sighted.isEmpty()) return;
+        Snapshot updated = mutate((entries, now) -> {
+            for (String name : sighted) {
+                String key = key(name);
+                Entry entry = entries.get(key);
+                if (entry == null) {
+                    // Stored with first-seen casing
+                    entry = new Entry(name, 0, now, now, 0, false);
+                }
+                entries.put(key, entry.hit(now, policy));
+            }
+            return true;
+        });
+        IngredientJournal j = journal;
+        if (j != null) j.append(IngredientJournal.ADD, updated.version, sighted);
+    }
+
+    /** Removes an ingredient (case-insensitively); returns whether it was tracked. */
+    public boolean removeIngredientName(String ingredientName) {
+        if (ingredientName == null) return false;
+        final String key = key(ingredientName.trim());
+        final boolean[] removed = new boolean[1];
+        Snapshot updated = mutate((entries, now) -> removed[0] = entries.remove(key) != null);
+        IngredientJournal j = journal;
+        if (removed[0] && j != null) {
+            j.append(IngredientJournal.REMOVE, updated.version, Collections.singletonList(key));
+        }
+        return removed[0];
+    }
+
+    /** Evicts entries that have decayed below the threshold. Reads do this on their own. */
+    public void evictStale() {
+        mutate((entries, now) -> false);
+    }
+
+    /** The current state, after evicting anything that has gone stale; never blocks. */
+    public Snapshot getSnapshot() {
+        Snapshot current = state.get();
+        if (clock.now() < current.nextEviction) return current;
+        return mutate((entries, now) -> false);
+    }
+
+    /** Incremented on every change, starting at 0. */
+    public long getVersion() {
+        return getSnapshot().version;
     }
 
     /**
-     * Gets a thread-safe copy of the currently detected ingredients.
-     * @return A Set of ingredient names (Strings).
+     * Gets the currently reported ingredients.
+     * @return An unmodifiable Set of ingredient names (Strings), in first-seen order.
      */
     public Set<String> getCurrentIngredients() {
-        // Return a new HashSet based on the existing synchronized set
-        synchronized (detectedIngredients) {
-            return new java.util.LinkedHashSet<>(detectedIngredients.values());
-        }
+        return getSnapshot().getIngredients();
     }
 
     public java.util.Map<String, String> getDetectedIngredientsMap() {
-        synchronized (detectedIngredients) {
-            return new java.util.LinkedHashMap<>(detectedIngredients);
-        }
+        return getSnapshot().getIngredientsMap();
     }
 
     /**
      * Clear the accumulated ingredients.
      */
     public void clear() {
-        detectedIngredients.clear();
+        final boolean[] cleared = new boolean[1];
+        Snapshot updated = mutate((entries, now) -> {
+            if (entries.isEmpty()) return false;
+            entries.clear();
+            return cleared[0] = true;
+        });
+        IngredientJournal j = journal;
+        if (cleared[0] && j != null) {
+            j.append(IngredientJournal.CLEAR, updated.version, Collections.<String>emptyList());
+        }
+    }
+
+    /**
+     * Merges journaled state back in as one change: {@code entries} are added where the name
+     * isn't tracked yet, then {@code events} are applied in order. Times are on this
+     * accumulator's clock.
+     */
+    void restore(final List<Entry> entries, final List<IngredientJournal.Event> events) {
+        mutate((current, now) -> {
+            for (Entry entry : entries) {
+                String key = key(entry.name);
+                if (!current.containsKey(key)) current.put(key, entry);
+            }
+            for (IngredientJournal.Event event : events) {
+                if (event.type == IngredientJournal.CLEAR) {
+                    current.clear();
+                }
+                for (String name : event.names) {
+                    String key = key(name);
+                    if (event.type == IngredientJournal.REMOVE) {
+                        current.remove(key);
+                        continue;
+                    }
+                    Entry entry = current.get(key);
+                    if (entry == null) entry = new Entry(name, 0, event.time, event.time, 0, false);
+                    current.put(key, entry.hit(event.time, policy));
+                }
+            }
+            return true;
+        });
+    }
+
+    public void addChangeListener(ChangeListener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Applies a mutation plus eviction to a copy of the current entries and publishes the
+     * result, retrying if another writer got there first.
+     */
+    private Snapshot mutate(Mutation mutation) {
+        while (true) {
+            Snapshot current = state.get();
+            long now = clock.now();
+            Map<String, Entry> next = new LinkedHashMap<>(current.entries);
+            boolean changed = mutation.apply(next, now);
+            changed |= evict(next, now);
+            if (!changed) return current;
+            Snapshot updated = new Snapshot(current.version + 1, next, policy);
+            if (state.compareAndSet(current, updated)) {
+                notifyListeners(current, updated);
+                return updated;
+            }
+        }
+    }
+
+    /** Drops decayed entries, then the weakest ones beyond capacity. */
+    private boolean evict(Map<String, Entry> entries, long now) {
+        boolean changed = false;
+        java.util.Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (now >= it.next().evictAt(policy)) {
+                it.remove();
+                changed = true;
+            }
+        }
+        while (entries.size() > policy.capacity) {
+            String weakest = null;
+            double weakestScore = Double.MAX_VALUE;
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                double score = e.getValue().scoreAt(now, policy);
+                if (score < weakestScore) {
+                    weakestScore = score;
+                    weakest = e.getKey();
+                }
+            }
+            entries.remove(weakest);
+            changed = true;
+        }
+        return changed;
+    }
+
+    private void notifyListeners(Snapshot before, Snapshot after) {
+        if (listeners.isEmpty()) return;
+        List<String> added = new ArrayList<>();
+        for (Map.Entry<String, String> e : after.ingredients.entrySet()) {
+            if (!before.ingredients.containsKey(e.getKey())) added.add(e.getValue());
+        }
+        List<String> removed = new ArrayList<>();
+        for (Map.Entry<String, String> e : before.ingredients.entrySet()) {
+            if (!after.ingredients.containsKey(e.getKey())) removed.add(e.getValue());
+        }
+        if (added.isEmpty() && removed.isEmpty()) return;
+        Change change = new Change(added, removed, after);
+        for (ChangeListener listener : listeners) {
+            listener.onIngredientsChanged(change);
+        }
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,261 @@
+package com.example.recepiesuggestor.data;
+
+import android.content.Context;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only journal of ingredient sightings, removals and clears, so a restarted app picks
+ * up the last session instead of making the user re-scan the kitchen.
+ *
+ * The file starts with a compacted copy of the accumulator's entries, followed by events that
+ * are appended in batches on a background thread. Once enough events pile up, the file is
+ * rewritten as a fresh compaction. Times are stored as wall-clock millis. On restore the last
+ * write is mapped onto the accumulator's current time, so scores only decay while the app runs:
+ * time spent dead between sessions, be it minutes or days, does not age the pantry.
+ */
+public class IngredientJournal {
+
+    public static final String FILE_NAME = "ingredients.journal";
+    public static final long DEFAULT_FLUSH_DELAY_MS = 500;
+    public static final int DEFAULT_COMPACT_EVERY = 1000;
+
+    static final byte ADD = 'A';
+    static final byte REMOVE = 'R';
+    static final byte CLEAR = 'C';
+
+    private static final int MAGIC = 0x494A524E; // "IJRN"
+    private static final int FORMAT_VERSION = 1;
+
+    /** One journaled change of the accumulator. */
+    static final class Event {
+        final byte type;
+        // Accumulator version the change produced; orders events and skips compacted ones
+        final long version;
+        final long time;
+        final List<String> names;
+
+        Event(byte type, long version, long time, List<String> names) {
+            this.type = type;
+            this.version = version;
+            this.time = time;
+            this.names = names;
+        }
+    }
+
+    private static IngredientJournal instance;
+
+    private final File file;
+    private final IngredientAccumulator.Clock wallClock;
+    private final ScheduledExecutorService writer;
+    private final long flushDelayMs;
+    private final int compactEvery;
+
+    private final Object pendingLock = new Object();
+    private List<Event> pending = new ArrayList<>();
+    private boolean flushScheduled;
+    private Future<Integer> restoring;
+
+    // Writer thread only
+    private IngredientAccumulator accumulator;
+    private long compactedVersion;
+    private int eventsSinceCompaction;
+
+    IngredientJournal(File file, IngredientAccumulator.Clock wallClock, ScheduledExecutorService writer,
+                      long flushDelayMs, int compactEvery) {
+        this.file = file;
+        this.wallClock = wallClock;
+        this.writer = writer;
+        this.flushDelayMs = flushDelayMs;
+        this.compactEvery = compactEvery;
+    }
+
+    public static synchronized IngredientJournal getInstance(Context context) {
+        if (instance == null) {
+            File file = new File(context.getApplicationContext().getFilesDir(), FILE_NAME);
+            instance = new IngredientJournal(file, System::currentTimeMillis,
+                    Executors.newSingleThreadScheduledExecutor(), DEFAULT_FLUSH_DELAY_MS, DEFAULT_COMPACT_EVERY);
+        }
+        return instance;
+    }
+
+    /**
+     * Replays the journal into {@code target} on the background thread, then records every
+     * later change of it. Safe to call repeatedly; every call returns the same future, which
+     * yields the number of records replayed.
+     */
+    public synchronized Future<Integer> restoreInto(final IngredientAccumulator target) {
+        if (restoring == null) {
+            restoring = writer.submit(() -> {
+                int replayed = replay(target);
+                accumulator = target;
+                target.setJournal(this);
+                // Start from a compaction so this session's versions never mix with the last one's
+                compact();
+                return replayed;
+            });
+        }
+        return restoring;
+    }
+
+    /** Writes pending events now instead of after the batching delay. */
+    public Future<?> flush() {
+        return writer.submit(this::writePending);
+    }
+
+    /** Queues a change for the next batch; called by the accumulator after it publishes it. */
+    void append(byte type, long version, List<String> names) {
+        Event event = new Event(type, version, wallClock.now(), new ArrayList<>(names));
+        synchronized (pendingLock) {
+            pending.add(event);
+            if (flushScheduled) return;
+            flushScheduled = true;
+        }
+        writer.schedule(this::writePending, flushDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void writePending() {
+        List<Event> batch;
+        synchronized (pendingLock) {
+            batch = pending;
+            pending = new ArrayList<>();
+            flushScheduled = false;
+        }
+        if (accumulator == null || batch.isEmpty()) return;
+
+        boolean failed = false;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file, true)))) {
+            for (Event event : batch) {
+                // Already part of the last compaction
+                if (event.version <= compactedVersion) continue;
+                writeEvent(out, event);
+                eventsSinceCompaction++;
+            }
+        } catch (IOException e) {
+            // A torn tail is dropped on restore; rewrite the file from the accumulator instead
+            failed = true;
+        }
+        if (failed || eventsSinceCompaction >= compactEvery) compact();
+    }
+
+    /** Rewrites the file as the accumulator's current entries with no events. */
+    private boolean compact() {
+        IngredientAccumulator.Snapshot snapshot = accumulator.getSnapshot();
+        long toWall = wallClock.now() - accumulator.getClock().now();
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(snapshot.version);
+                out.writeLong(wallClock.now());
+                out.writeInt(snapshot.getEntries().size());
+                for (IngredientAccumulator.Entry entry : snapshot.getEntries()) {
+                    out.writeUTF(entry.name);
+                    out.writeInt(entry.hits);
+                    out.writeLong(entry.firstSeen + toWall);
+                    out.writeLong(entry.lastSeen + toWall);
+                    out.writeDouble(entry.score);
+                    out.writeBoolean(entry.confirmed);
+                }
+            }
+            if (!tmp.renameTo(file)) throw new IOException("Could not rename " + tmp);
+            compactedVersion = snapshot.version;
+            eventsSinceCompaction = 0;
+            return true;
+        } catch (IOException e) {
+            tmp.delete();
+            return false;
+        }
+    }
+
+    /**
+     * Reads the file into {@code target}; a missing or unreadable header restores nothing. The
+     * last write, a compaction or an event, becomes the accumulator's now.
+     */
+    private int replay(IngredientAccumulator target) {
+        if (!file.isFile()) return 0;
+        List<IngredientAccumulator.Entry> stored = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        long lastWrite;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) return 0;
+            if (in.readInt() != FORMAT_VERSION) return 0;
+            long snapshotVersion = in.readLong();
+            lastWrite = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                int hits = in.readInt();
+                long firstSeen = in.readLong();
+                long lastSeen = in.readLong();
+                double score = in.readDouble();
+                boolean confirmed = in.readBoolean();
+                stored.add(new IngredientAccumulator.Entry(name, hits, firstSeen, lastSeen, score, confirmed));
+                lastWrite = Math.max(lastWrite, lastSeen);
+            }
+            try {
+                while (true) {
+                    Event event = readEvent(in);
+                    if (event.version > snapshotVersion) events.add(event);
+                    lastWrite = Math.max(lastWrite, event.time);
+                }
+            } catch (EOFException end) {
+                // End of the journal, or a batch cut off by the process dying mid-write
+            }
+        } catch (IOException e) {
+            return 0;
+        }
+
+        long toClock = target.getClock().now() - lastWrite;
+        List<IngredientAccumulator.Entry> entries = new ArrayList<>(stored.size());
+        for (IngredientAccumulator.Entry e : stored) {
+            entries.add(new IngredientAccumulator.Entry(e.name, e.hits, e.firstSeen + toClock,
+                    e.lastSeen + toClock, e.score, e.confirmed));
+        }
+        List<Event> shifted = new ArrayList<>(events.size());
+        for (Event e : events) shifted.add(new Event(e.type, e.version, e.time + toClock, e.names));
+        // Concurrent writers can queue events slightly out of version order
+        Collections.sort(shifted, (a, b) -> Long.compare(a.version, b.version));
+        target.restore(entries, shifted);
+        return entries.size() + shifted.size();
+    }
+
+    private static void writeEvent(DataOutputStream out, Event event) throws IOException {
+        out.writeByte(event.type);
+        out.writeLong(event.version);
+        out.writeLong(event.time);
+        out.writeInt(event.names.size());
+        for (String name : event.names) out.writeUTF(name);
+    }
+
+    private static Event readEvent(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        long version = in.readLong();
+        long time = in.readLong();
+        int count = in.readInt();
+        if ((type != ADD && type != REMOVE && type != CLEAR) || count < 0 || count > 10_000) {
+            throw new EOFException("Corrupt journal record");
+        }
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) names.add(in.readUTF());
+        return new Event(type, version, time, names);
+    }
+}
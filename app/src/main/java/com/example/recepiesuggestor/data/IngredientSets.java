@@ -0,0 +1,83 @@
+package com.example.recepiesuggestor.data;
+
+import java.util.Arrays;
+
+/**
+ * Set operations on ingredient id sets stored as sorted, duplicate-free int arrays (see
+ * {@link IngredientVocabulary}). All run in one merge pass without boxing.
+ */
+public final class IngredientSets {
+
+    private IngredientSets() {}
+
+    /** A sorted, duplicate-free copy of the first {@code n} ids. */
+    public static int[] of(int[] ids, int n) {
+        int[] sorted = Arrays.copyOf(ids, n);
+        Arrays.sort(sorted);
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (size == 0 || sorted[size - 1] != sorted[i]) sorted[size++] = sorted[i];
+        }
+        return size == n ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    public static boolean contains(int[] set, int id) {
+        return Arrays.binarySearch(set, id) >= 0;
+    }
+
+    /** Number of ids in both sets. */
+    public static int overlap(int[] a, int[] b) {
+        int i = 0, j = 0, count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /** Whether every id of {@code subset} is in {@code set}. */
+    public static boolean containsAll(int[] set, int[] subset) {
+        return overlap(set, subset) == subset.length;
+    }
+
+    /** Ids of {@code a} that are not in {@code b}, sorted. */
+    public static int[] difference(int[] a, int[] b) {
+        int[] result = new int[a.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length) {
+            if (j == b.length || a[i] < b[j]) {
+                result[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        return n == a.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /** Ids in either set, sorted. */
+    public static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                result[n++] = a[i++];
+            } else if (i == a.length || a[i] > b[j]) {
+                result[n++] = b[j++];
+            } else {
+                result[n++] = a[i++];
+                j++;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+}
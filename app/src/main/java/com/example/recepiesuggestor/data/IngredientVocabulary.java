@@ -0,0 +1,128 @@
+package com.example.recepiesuggestor.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * App-wide interning of ingredient names to dense int ids. Names are normalized first (trimmed,
+ * lower case, single spaces, last word singular), so "Tomatoes", "tomato" and " tomato " share
+ * an id while "oil" and "boil" never do. Ids are stable for the life of the process.
+ *
+ * Only code that builds an index or a catalog interns, so the vocabulary is bounded by the
+ * indexed recipes. Queries and transient recipes (parsed answers, decoded catalog entries) use
+ * {@link #idOf} and {@link #idsOf}, which never add a name.
+ *
+ * Lookups are lock-free; interning a new name takes a short lock.
+ */
+public final class IngredientVocabulary {
+
+    private static final IngredientVocabulary INSTANCE = new IngredientVocabulary();
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    IngredientVocabulary() {}
+
+    public static IngredientVocabulary getInstance() {
+        return INSTANCE;
+    }
+
+    /** The id of {@code name}, assigning the next one if it is new; -1 for a blank name. */
+    public int intern(String name) {
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) return -1;
+        Integer id = ids.get(normalized);
+        if (id != null) return id;
+        synchronized (names) {
+            id = ids.get(normalized);
+            if (id == null) {
+                id = names.size();
+                names.add(normalized);
+                ids.put(normalized, id);
+            }
+            return id;
+        }
+    }
+
+    /** Interns every entry of a comma-separated ingredient list; returns a sorted id set. */
+    public int[] internAll(String commaSeparated) {
+        if (commaSeparated == null) return new int[0];
+        String[] parts = commaSeparated.split(",");
+        int[] result = new int[parts.length];
+        int n = 0;
+        for (String part : parts) {
+            int id = intern(part);
+            if (id >= 0) result[n++] = id;
+        }
+        return IngredientSets.of(result, n);
+    }
+
+    /** The id of {@code name} without interning it; -1 if it was never interned. */
+    public int idOf(String name) {
+        if (name == null) return -1;
+        Integer id = ids.get(normalize(name));
+        return id == null ? -1 : id;
+    }
+
+    /** Sorted ids of the known names among {@code names}; unknown names are skipped. */
+    public int[] idsOf(Collection<String> names) {
+        int[] result = new int[names.size()];
+        int n = 0;
+        for (String name : names) {
+            int id = idOf(name);
+            if (id >= 0) result[n++] = id;
+        }
+        return IngredientSets.of(result, n);
+    }
+
+    /** The normalized name of an id. */
+    public String nameOf(int id) {
+        synchronized (names) {
+            return names.get(id);
+        }
+    }
+
+    /** Number of interned names; ids run from 0 to size() - 1. */
+    public int size() {
+        synchronized (names) {
+            return names.size();
+        }
+    }
+
+    /**
+     * Canonical form of an ingredient name: trimmed, lower case, runs of whitespace collapsed,
+     * and a plural last word made singular ("Cherry  Tomatoes" -> "cherry tomato").
+     */
+    public static String normalize(String name) {
+        if (name == null) return "";
+        String[] words = name.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        if (words.length == 1 && words[0].isEmpty()) return "";
+        words[words.length - 1] = singular(words[words.length - 1]);
+        return words.length == 1 ? words[0] : joinWords(words);
+    }
+
+    private static String joinWords(String[] words) {
+        StringBuilder sb = new StringBuilder();
+        for (String word : words) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(word);
+        }
+        return sb.toString();
+    }
+
+    /** English plural to singular for the common ingredient forms; other words unchanged. */
+    static String singular(String word) {
+        int n = word.length();
+        if (n < 4 || word.charAt(n - 1) != 's') return word;
+        if (word.endsWith("ss") || word.endsWith("us") || word.endsWith("is")) return word;  // swiss, hummus
+        if (word.endsWith("ies")) return word.substring(0, n - 3) + "y";                      // berries
+        if (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes")
+                || word.endsWith("xes")) {
+            return word.substring(0, n - 2);                                                  // tomatoes, peaches
+        }
+        return word.substring(0, n - 1);                                                      // eggs, olives
+    }
+}
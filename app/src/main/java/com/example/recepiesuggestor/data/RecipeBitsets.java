@@ -0,0 +1,204 @@
+package com.example.recepiesuggestor.data;
+
+import com.example.recepiesuggestor.Recipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Recipe requirements as bitsets, for scanning large catalogs. Ingredient use is heavily skewed,
+ * so only the most used ingredients, at most {@link #DEFAULT_HOT_BITS}, get a bit: every recipe
+ * has the same few 64-bit words over those, back to back in one flat array, and a coverage query
+ * is a pass of AND and {@link Long#bitCount} over contiguous memory. The long tail of rarer
+ * ingredients stays a sorted list of {@link IngredientVocabulary} ids per recipe, only visited
+ * when the pantry holds one of them. Memory per recipe is therefore bounded by the hot range,
+ * not by the vocabulary size.
+ *
+ * Matching follows {@link RecipeIndex}: a recipe's requirement is met by an available name
+ * with the same normalized form. Unlike the index, every recipe is visited on each query, so
+ * the cost is flat in the pantry size and only grows with catalog size.
+ *
+ * Immutable and thread-safe once built.
+ */
+public final class RecipeBitsets {
+
+    /** Ingredients that get a bit; 4 words, 32 bytes per recipe. */
+    public static final int DEFAULT_HOT_BITS = 256;
+
+    /** The available names, split like the recipes' requirements; see {@link #pantry}. */
+    public static final class Pantry {
+        final long[] hot;
+        // Occupied word range of hot
+        final int from;
+        final int to;
+        // Sorted vocabulary ids of available ingredients outside the hot range
+        final int[] cold;
+
+        Pantry(long[] hot, int[] cold) {
+            int from = 0, to = hot.length;
+            while (from < to && hot[from] == 0) from++;
+            while (to > from && hot[to - 1] == 0) to--;
+            this.hot = hot;
+            this.from = from;
+            this.to = to;
+            this.cold = cold;
+        }
+    }
+
+    private final RecipeSource recipes;
+    // Words per recipe
+    private final int words;
+    // Recipe r's hot requirements occupy bits[r * words, (r + 1) * words)
+    private final long[] bits;
+    // Hot bit -> vocabulary id
+    private final int[] hotIds;
+    // Vocabulary id -> hot bit, or -1; ids past the end belong to no recipe
+    private final int[] hotBits;
+    // Recipe r's other requirements are coldIds[coldStart[r], coldStart[r + 1]), sorted
+    private final int[] coldStart;
+    private final int[] coldIds;
+    // Distinct required ingredients per recipe
+    private final int[] requiredCounts;
+
+    public RecipeBitsets(List<Recipe> recipes) {
+        this(RecipeSource.of(recipes), DEFAULT_HOT_BITS);
+    }
+
+    RecipeBitsets(RecipeSource recipes) {
+        this(recipes, DEFAULT_HOT_BITS);
+    }
+
+    RecipeBitsets(RecipeSource recipes, int maxHotBits) {
+        if (maxHotBits < 0) throw new IllegalArgumentException("maxHotBits must be >= 0");
+        this.recipes = recipes;
+        int[][] ids = new int[recipes.size()][];
+        int maxId = -1;
+        for (int r = 0; r < ids.length; r++) {
+            ids[r] = recipes.getIngredientIds(r);
+            if (ids[r].length > 0) maxId = Math.max(maxId, ids[r][ids[r].length - 1]);
+        }
+
+        // Most used ingredients first, ties by id; packed as (MAX - uses, id) to sort without boxing
+        int[] uses = new int[maxId + 1];
+        for (int[] own : ids) {
+            for (int id : own) uses[id]++;
+        }
+        long[] byUse = new long[uses.length];
+        int distinct = 0;
+        for (int id = 0; id < uses.length; id++) {
+            if (uses[id] > 0) byUse[distinct++] = ((long) (Integer.MAX_VALUE - uses[id]) << 32) | id;
+        }
+        Arrays.sort(byUse, 0, distinct);
+        this.hotIds = new int[Math.min(distinct, maxHotBits)];
+        this.hotBits = new int[uses.length];
+        Arrays.fill(hotBits, -1);
+        for (int bit = 0; bit < hotIds.length; bit++) {
+            hotIds[bit] = (int) byUse[bit];
+            hotBits[hotIds[bit]] = bit;
+        }
+
+        this.words = (hotIds.length + 63) >>> 6;
+        this.bits = new long[ids.length * words];
+        this.requiredCounts = new int[ids.length];
+        this.coldStart = new int[ids.length + 1];
+        int coldCount = 0;
+        for (int r = 0; r < ids.length; r++) {
+            for (int id : ids[r]) {
+                if (hotBits[id] < 0) coldCount++;
+            }
+        }
+        this.coldIds = new int[coldCount];
+        int cold = 0;
+        for (int r = 0; r < ids.length; r++) {
+            int base = r * words;
+            coldStart[r] = cold;
+            for (int id : ids[r]) {
+                int bit = hotBits[id];
+                if (bit >= 0) {
+                    bits[base + (bit >>> 6)] |= 1L << bit;
+                } else {
+                    coldIds[cold++] = id;
+                }
+            }
+            requiredCounts[r] = ids[r].length;
+        }
+        coldStart[ids.length] = cold;
+    }
+
+    /** Number of indexed recipes. */
+    public int size() {
+        return recipes.size();
+    }
+
+    /** Number of ingredients that got a bit. */
+    public int getHotIngredientCount() {
+        return hotIds.length;
+    }
+
+    /** Bytes held by the bitsets, the cold id lists and the id mappings. */
+    public long getBitsetBytes() {
+        return bits.length * 8L
+                + 4L * (hotIds.length + hotBits.length + coldStart.length + coldIds.length + requiredCounts.length);
+    }
+
+    /** The available names, looked up without interning; names no recipe uses are dropped. */
+    public Pantry pantry(Collection<String> available) {
+        long[] hot = new long[words];
+        int[] ids = IngredientVocabulary.getInstance().idsOf(available);
+        int cold = 0;
+        for (int id : ids) {
+            if (id >= hotBits.length) continue;
+            int bit = hotBits[id];
+            if (bit >= 0) {
+                hot[bit >>> 6] |= 1L << bit;
+            } else {
+                // Sorted, since ids are
+                ids[cold++] = id;
+            }
+        }
+        return new Pantry(hot, Arrays.copyOf(ids, cold));
+    }
+
+    /** Available required ingredients of every recipe, in list order. */
+    public int[] coveredCounts(Pantry pantry) {
+        int[] covered = new int[recipes.size()];
+        // Words outside the pantry's occupied range cannot add to any count
+        if (pantry.from < pantry.to) {
+            long[] hot = pantry.hot;
+            for (int r = 0, base = 0; r < covered.length; r++, base += words) {
+                int count = 0;
+                for (int w = pantry.from; w < pantry.to; w++) count += Long.bitCount(bits[base + w] & hot[w]);
+                covered[r] = count;
+            }
+        }
+        if (pantry.cold.length > 0) {
+            for (int r = 0; r < covered.length; r++) {
+                for (int i = coldStart[r]; i < coldStart[r + 1]; i++) {
+                    if (Arrays.binarySearch(pantry.cold, coldIds[i]) >= 0) covered[r]++;
+                }
+            }
+        }
+        return covered;
+    }
+
+    /** Recipes whose every required ingredient is available, in list order. */
+    public List<Recipe> match(Collection<String> available) {
+        return withCoverage(available, 1);
+    }
+
+    /**
+     * Recipes with at least {@code minCoverage} (0..1] of their required ingredients available,
+     * in list order.
+     */
+    public List<Recipe> withCoverage(Collection<String> available, double minCoverage) {
+        if (minCoverage <= 0 || minCoverage > 1) throw new IllegalArgumentException("minCoverage must be in (0, 1]");
+        int[] covered = coveredCounts(pantry(available));
+        List<Recipe> result = new ArrayList<>();
+        for (int r = 0; r < covered.length; r++) {
+            if (covered[r] > 0 && covered[r] >= minCoverage * requiredCounts[r]) result.add(recipes.getRecipe(r));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.recepiesuggestor.data;
+
+import com.example.recepiesuggestor.Recipe;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Packed, read-only recipe catalog read straight from a memory-mapped file. Opening one reads
+ * the header and interns the ingredient names; titles, descriptions and instructions stay in
+ * the mapping until a recipe is actually shown, so startup time and heap stay flat however
+ * many recipes the file holds.
+ *
+ * Layout, big-endian, offsets in bytes from the start of the file:
+ * <pre>
+ * header       magic "RCAT", version, recipe count, ingredient count,
+ *              ingredient table offset, records offset, ids offset, strings offset,
+ *              CRC32 of everything after the header
+ * ingredients  per catalog ingredient id, the string of its normalized name
+ * records      per recipe: title, description, ingredients and instructions strings,
+ *              image resource name string, first entry in the ids section, number of ids
+ * ids          catalog ingredient ids of every recipe, back to back
+ * strings      length-prefixed UTF-8, referenced by offset from the section start; shared
+ *              strings are stored once
+ * </pre>
+ *
+ * Images are stored by resource name, since drawable ids change from build to build, and
+ * resolved through {@link ImageNames} when a recipe is decoded. The checksum lets a copy of
+ * the catalog be compared with its source by header alone; see {@link #readHeader}.
+ *
+ * Thread-safe; every read works on its own view of the mapping.
+ */
+public final class RecipeCatalog implements RecipeSource {
+
+    /** Converts between drawable resource ids of this build and names that survive rebuilds. */
+    public interface ImageNames {
+        /** The name to store for {@code resourceId}; null or empty stores none. */
+        String nameOf(int resourceId);
+
+        /** The resource id of a stored name in this build, or a fallback image. */
+        int idOf(String name);
+    }
+
+    private static final int MAGIC = 0x52434154; // "RCAT"
+    private static final int VERSION = 1;
+    static final int HEADER_BYTES = 36;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Record fields, as int indexes into a record
+    private static final int TITLE = 0;
+    private static final int DESCRIPTION = 1;
+    private static final int INGREDIENTS = 2;
+    private static final int INSTRUCTIONS = 3;
+    private static final int IMAGE = 4;
+    private static final int IDS_START = 5;
+    private static final int IDS_COUNT = 6;
+    private static final int RECORD_INTS = 7;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int recordsOffset;
+    private final int idsOffset;
+    private final int stringsOffset;
+    // Catalog ingredient id -> IngredientVocabulary id
+    private final int[] vocabularyIds;
+    private final ImageNames imageNames;
+    // Image name string reference -> resource id; recipes share a handful of images
+    private final Map<Integer, Integer> imageIds = new ConcurrentHashMap<>();
+
+    RecipeCatalog(ByteBuffer buffer, ImageNames imageNames) throws IOException {
+        this.buffer = buffer;
+        this.imageNames = imageNames;
+        int limit = buffer.limit();
+        if (limit < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a recipe catalog");
+        }
+        this.size = buffer.getInt(8);
+        int ingredientCount = buffer.getInt(12);
+        int ingredientsOffset = buffer.getInt(16);
+        this.recordsOffset = buffer.getInt(20);
+        this.idsOffset = buffer.getInt(24);
+        this.stringsOffset = buffer.getInt(28);
+        if (size < 0 || ingredientCount < 0
+                || ingredientsOffset < HEADER_BYTES || ingredientsOffset + 4L * ingredientCount > recordsOffset
+                || recordsOffset + 4L * RECORD_INTS * size > idsOffset
+                || idsOffset > stringsOffset || stringsOffset > limit) {
+            throw new IOException("Corrupt recipe catalog header");
+        }
+
+        try {
+            CRC32 checksum = new CRC32();
+            ByteBuffer body = buffer.duplicate();
+            body.position(HEADER_BYTES);
+            checksum.update(body);
+            if ((int) checksum.getValue() != buffer.getInt(32)) {
+                throw new IOException("Recipe catalog checksum mismatch");
+            }
+            // Every reference is checked once here, so later decodes stay inside their sections
+            for (int i = 0; i < ingredientCount; i++) checkString(buffer.getInt(ingredientsOffset + 4 * i));
+            int idCount = (stringsOffset - idsOffset) / 4;
+            for (int r = 0; r < size; r++) {
+                for (int field = TITLE; field <= IMAGE; field++) checkString(field(r, field));
+                int start = field(r, IDS_START);
+                int count = field(r, IDS_COUNT);
+                if (start < 0 || count < 0 || start > idCount - count) {
+                    throw new IOException("Recipe " + r + " has ids outside the ids section");
+                }
+                for (int i = 0; i < count; i++) {
+                    int id = buffer.getInt(idsOffset + 4 * (start + i));
+                    if (id < 0 || id >= ingredientCount) throw new IOException("Recipe " + r + " has unknown ingredient " + id);
+                }
+            }
+
+            IngredientVocabulary vocabulary = IngredientVocabulary.getInstance();
+            this.vocabularyIds = new int[ingredientCount];
+            for (int i = 0; i < ingredientCount; i++) {
+                vocabularyIds[i] = vocabulary.intern(string(buffer.getInt(ingredientsOffset + 4 * i)));
+            }
+        } catch (RuntimeException e) {
+            // Offsets that overflow, a mapping that shrank underneath us, ...
+            throw new IOException("Corrupt recipe catalog", e);
+        }
+    }
+
+    /**
+     * Maps {@code file} read-only; the mapping outlives the channel. The checksum and every
+     * reference in the file are verified first, so a corrupt or truncated file is reported here
+     * as an IOException rather than failing a later decode. Interns the catalog's ingredient
+     * names, so indexes can be built over it.
+     */
+    public static RecipeCatalog open(File file, ImageNames imageNames) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            return new RecipeCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), imageNames);
+        }
+    }
+
+    /**
+     * Reads the header of a serialized catalog from {@code in}. It ends with a checksum of the
+     * rest, so two catalogs with equal headers hold the same recipes.
+     */
+    static byte[] readHeader(InputStream in) throws IOException {
+        byte[] header = new byte[HEADER_BYTES];
+        new DataInputStream(in).readFully(header);
+        return header;
+    }
+
+    /** Serializes {@code recipes} in the layout above, in list order. */
+    public static void write(List<Recipe> recipes, ImageNames imageNames, OutputStream out) throws IOException {
+        IngredientVocabulary vocabulary = IngredientVocabulary.getInstance();
+        StringTable strings = new StringTable();
+        Map<Integer, Integer> catalogIds = new HashMap<>();
+        List<Integer> ingredientNames = new ArrayList<>();
+        int[] records = new int[recipes.size() * RECORD_INTS];
+        int[] ids = new int[16];
+        int idCount = 0;
+
+        for (int r = 0; r < recipes.size(); r++) {
+            Recipe recipe = recipes.get(r);
+            int base = r * RECORD_INTS;
+            records[base + TITLE] = strings.add(recipe.getTitle());
+            records[base + DESCRIPTION] = strings.add(recipe.getDescription());
+            records[base + INGREDIENTS] = strings.add(recipe.getIngredients());
+            records[base + INSTRUCTIONS] = strings.add(recipe.getInstructions());
+            records[base + IMAGE] = strings.add(imageNames.nameOf(recipe.getImageResourceId()));
+            int[] own = vocabulary.internAll(recipe.getIngredients());
+            records[base + IDS_START] = idCount;
+            records[base + IDS_COUNT] = own.length;
+            for (int id : own) {
+                Integer catalogId = catalogIds.get(id);
+                if (catalogId == null) {
+                    catalogId = ingredientNames.size();
+                    catalogIds.put(id, catalogId);
+                    ingredientNames.add(strings.add(vocabulary.nameOf(id)));
+                }
+                if (idCount == ids.length) ids = Arrays.copyOf(ids, ids.length * 2);
+                ids[idCount++] = catalogId;
+            }
+        }
+
+        int ingredientsOffset = HEADER_BYTES;
+        int recordsOffset = ingredientsOffset + 4 * ingredientNames.size();
+        int idsOffset = recordsOffset + 4 * records.length;
+        int stringsOffset = idsOffset + 4 * idCount;
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(stringsOffset - HEADER_BYTES + strings.bytes.size());
+        DataOutputStream dos = new DataOutputStream(body);
+        for (int name : ingredientNames) dos.writeInt(name);
+        for (int field : records) dos.writeInt(field);
+        for (int i = 0; i < idCount; i++) dos.writeInt(ids[i]);
+        strings.bytes.writeTo(dos);
+        dos.flush();
+        CRC32 checksum = new CRC32();
+        byte[] bodyBytes = body.toByteArray();
+        checksum.update(bodyBytes, 0, bodyBytes.length);
+
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeInt(recipes.size());
+        header.writeInt(ingredientNames.size());
+        header.writeInt(ingredientsOffset);
+        header.writeInt(recordsOffset);
+        header.writeInt(idsOffset);
+        header.writeInt(stringsOffset);
+        header.writeInt((int) checksum.getValue());
+        header.write(bodyBytes);
+        header.flush();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public String getTitle(int r) {
+        return string(field(r, TITLE));
+    }
+
+    /** Decodes recipe {@code r}; every call builds a new {@link Recipe}. */
+    @Override
+    public Recipe getRecipe(int r) {
+        return new Recipe(string(field(r, TITLE)), string(field(r, DESCRIPTION)), imageId(field(r, IMAGE)),
+                string(field(r, INGREDIENTS)), string(field(r, INSTRUCTIONS)));
+    }
+
+    @Override
+    public int[] getIngredientIds(int r) {
+        int start = idsOffset + 4 * field(r, IDS_START);
+        int[] ids = new int[field(r, IDS_COUNT)];
+        for (int i = 0; i < ids.length; i++) ids[i] = vocabularyIds[buffer.getInt(start + 4 * i)];
+        // Vocabulary ids need not follow catalog id order
+        return IngredientSets.of(ids, ids.length);
+    }
+
+    /** Read-only view of the catalog that decodes each recipe when it is accessed. */
+    public List<Recipe> asList() {
+        return new RecipeList();
+    }
+
+    private int field(int r, int field) {
+        if (r < 0 || r >= size) throw new IndexOutOfBoundsException("Recipe " + r + " of " + size);
+        return buffer.getInt(recordsOffset + 4 * (r * RECORD_INTS + field));
+    }
+
+    private int imageId(int ref) {
+        Integer id = imageIds.get(ref);
+        if (id == null) {
+            id = imageNames.idOf(string(ref));
+            imageIds.put(ref, id);
+        }
+        return id;
+    }
+
+    /** Throws unless {@code ref} is a whole string inside the strings section. */
+    private void checkString(int ref) throws IOException {
+        int section = buffer.limit() - stringsOffset;
+        if (ref < 0 || ref > section - 4) throw new IOException("String " + ref + " outside the strings section");
+        int length = buffer.getInt(stringsOffset + ref);
+        if (length < 0 || length > section - 4 - ref) throw new IOException("String " + ref + " runs past the file");
+    }
+
+    private String string(int ref) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(stringsOffset + ref);
+        byte[] bytes = new byte[view.getInt()];
+        view.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private final class RecipeList extends AbstractList<Recipe> implements RandomAccess {
+        @Override
+        public Recipe get(int index) {
+            return getRecipe(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /** Strings section under construction; equal strings share one entry. */
+    private static final class StringTable {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> offsets = new HashMap<>();
+
+        int add(String s) throws IOException {
+            if (s == null) s = "";
+            Integer offset = offsets.get(s);
+            if (offset != null) return offset;
+            offset = bytes.size();
+            byte[] encoded = s.getBytes(UTF_8);
+            out.writeInt(encoded.length);
+            out.write(encoded);
+            offsets.put(s, offset);
+            return offset;
+        }
+    }
+}
@@ -1,6 +1,17 @@
 package com.example.recepiesuggestor.data;
 
+import android.content.Context;
+import android.content.res.Resources;
+
 import com.example.recepiesuggestor.Recipe;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -8,6 +19,23 @@ import java.util.List;
 public class RecipeDatabase {
 
     private static List<Recipe> recipes = new ArrayList<>();
+    // Packed catalog replacing the built-in recipes once loaded; see loadCatalog
+    private static volatile RecipeCatalog catalog;
+    // The built-in recipes with their ingredients interned, built on first use
+    private static RecipeSource builtIn;
+    // Ingredient -> recipes postings, so matching only visits recipes that share an ingredient
+    private static RecipeIndex index;
+    // Flat requirement bitsets, for catalogs too large for the postings to stay selective
+    private static RecipeBitsets bitsets;
+
+    /** Catalog size from which {@link #getMatchingRecipes} scans bitsets instead of postings. */
+    public static final int BITSET_SCAN_THRESHOLD = 10_000;
+
+    /** Packed catalog bundled in assets, generated from src/main/recipes/recipes.json at build time. */
+    public static final String CATALOG_ASSET = "recipes.catalog";
+
+    /** Image of recipes that name none, or a drawable this build no longer has. */
+    public static final int DEFAULT_IMAGE = android.R.drawable.sym_def_app_icon;
 
     static {
         initializeRecipes();
@@ -79,47 +107,157 @@ public class RecipeDatabase {
         ));
     }
 
+    /** All recipes; with a catalog loaded, a read-only view that decodes recipes as they are read. */
     public static List<Recipe> getAllRecipes() {
-        return new ArrayList<>(recipes);
+        RecipeCatalog loaded = catalog;
+        return loaded != null ? loaded.asList() : new ArrayList<>(recipes);
     }
 
     public static List<Recipe> getMatchingRecipes(List<String> availableIngredients) {
-        List<Recipe> matchingRecipes = new ArrayList<>();
+        int size = source().size();
+        List<Recipe> matchingRecipes = size >= BITSET_SCAN_THRESHOLD
+                ? getBitsets().match(availableIngredients)
+                : getIndex().match(availableIngredients);
+        android.util.Log.d("RECIPE_MATCH", "Available: " + availableIngredients + " -> "
+                + matchingRecipes.size() + " of " + size + " recipes can be made");
+        return matchingRecipes;
+    }
 
-        for (Recipe recipe : recipes) {
-            if (canMakeRecipe(recipe, availableIngredients)) {
-                matchingRecipes.add(recipe);
-            }
+    /**
+     * The {@code limit} best local recipes for the available ingredients, including ones that
+     * still miss a few items; see {@link RecipeIndex#rank}.
+     */
+    public static List<RecipeIndex.RankedRecipe> getRankedRecipes(List<String> availableIngredients, int limit) {
+        return getIndex().rank(availableIngredients, limit, RecipeIndex.Scoring.DEFAULT);
+    }
+
+    /**
+     * Recipes with at least {@code minCoverage} (0..1] of their ingredients available, in
+     * catalog order; see {@link RecipeBitsets#withCoverage}.
+     */
+    public static List<Recipe> getRecipesWithCoverage(List<String> availableIngredients, double minCoverage) {
+        return getBitsets().withCoverage(availableIngredients, minCoverage);
+    }
+
+    /** The requirement bitsets, built on first use. */
+    static synchronized RecipeBitsets getBitsets() {
+        if (bitsets == null) {
+            bitsets = new RecipeBitsets(source());
         }
+        return bitsets;
+    }
 
-        return matchingRecipes;
+    /** The recipe index, built on first use. */
+    static synchronized RecipeIndex getIndex() {
+        if (index == null) {
+            index = new RecipeIndex(source());
+        }
+        return index;
     }
 
-    private static boolean canMakeRecipe(Recipe recipe, List<String> availableIngredients) {
-        String[] requiredIngredients = recipe.getIngredients().toLowerCase().split(",");
-        android.util.Log.d("RECIPE_MATCH", "Checking recipe: " + recipe.getTitle());
-        android.util.Log.d("RECIPE_MATCH", "Required: " + java.util.Arrays.toString(requiredIngredients));
-        android.util.Log.d("RECIPE_MATCH", "Available: " + availableIngredients);
-
-        for (String required : requiredIngredients) {
-            required = required.trim();
-            boolean found = false;
-
-            for (String available : availableIngredients) {
-                if (available.toLowerCase().contains(required) || required.contains(available.toLowerCase())) {
-                    android.util.Log.d("RECIPE_MATCH", "Match found: '" + required + "' with '" + available + "'");
-                    found = true;
-                    break;
+    /**
+     * Serves recipes from {@code loaded} instead of the built-in list; null goes back to it.
+     * The index and bitsets over the catalog are built here, before it is published, so the
+     * first match never pays for them. Call off the UI thread.
+     */
+    public static void useCatalog(RecipeCatalog loaded) {
+        RecipeIndex loadedIndex = loaded != null ? new RecipeIndex(loaded) : null;
+        RecipeBitsets loadedBitsets = loaded != null ? new RecipeBitsets(loaded) : null;
+        synchronized (RecipeDatabase.class) {
+            catalog = loaded;
+            index = loadedIndex;
+            bitsets = loadedBitsets;
+        }
+    }
+
+    /** Stores drawables by resource name and resolves them in {@code context}'s resources. */
+    public static RecipeCatalog.ImageNames imageNames(Context context) {
+        final Resources resources = context.getApplicationContext().getResources();
+        return new RecipeCatalog.ImageNames() {
+            @Override
+            public String nameOf(int resourceId) {
+                try {
+                    return resourceId != 0 ? resources.getResourceName(resourceId) : null;
+                } catch (Resources.NotFoundException e) {
+                    return null;
                 }
             }
 
-            if (!found) {
-                android.util.Log.d("RECIPE_MATCH", "Missing ingredient: '" + required + "'");
-                return false;
+            @Override
+            public int idOf(String name) {
+                // Full "package:type/entry" names need no default type or package
+                int id = name.isEmpty() ? 0 : resources.getIdentifier(name, null, null);
+                return id != 0 ? id : DEFAULT_IMAGE;
             }
+        };
+    }
+
+    /**
+     * Maps the bundled {@link #CATALOG_ASSET}, copying it out of the APK when it changed, builds
+     * its index and switches to it. Keeps the built-in recipes if the app ships no catalog, and
+     * does nothing once a catalog is in use. Call off the UI thread; the copy and the index are
+     * proportional to the catalog size.
+     */
+    public static void loadCatalog(Context context) {
+        if (catalog != null) return;
+        Context app = context.getApplicationContext();
+        File file = new File(app.getFilesDir(), CATALOG_ASSET);
+        long start = android.os.SystemClock.elapsedRealtime();
+        try {
+            copyAssetIfChanged(app, file);
+        } catch (FileNotFoundException e) {
+            android.util.Log.d("RECIPE_INIT", "No recipe catalog in assets; using built-in recipes");
+            return;
+        } catch (IOException e) {
+            android.util.Log.w("RECIPE_INIT", "Failed to copy recipe catalog; using built-in recipes", e);
+            return;
+        }
+        try {
+            RecipeCatalog loaded = RecipeCatalog.open(file, imageNames(app));
+            useCatalog(loaded);
+            android.util.Log.d("RECIPE_INIT", "Mapped and indexed recipe catalog with " + loaded.size()
+                    + " recipes in " + (android.os.SystemClock.elapsedRealtime() - start) + " ms");
+        } catch (IOException e) {
+            android.util.Log.w("RECIPE_INIT", "Discarding unreadable recipe catalog", e);
+            file.delete();
         }
+    }
 
-        android.util.Log.d("RECIPE_MATCH", "Recipe " + recipe.getTitle() + " CAN be made!");
-        return true;
+    /**
+     * Assets are compressed in the APK, so the catalog is mapped from a plain copy. The copy is
+     * kept while its header, which ends with a checksum of the content, matches the asset's.
+     */
+    private static void copyAssetIfChanged(Context context, File file) throws IOException {
+        try (InputStream in = context.getAssets().open(CATALOG_ASSET)) {
+            byte[] header = RecipeCatalog.readHeader(in);
+            if (file.isFile()) {
+                try (InputStream current = new FileInputStream(file)) {
+                    if (Arrays.equals(header, RecipeCatalog.readHeader(current))) return;
+                } catch (IOException e) {
+                    // Truncated or unreadable copy; replace it
+                }
+            }
+            File tmp = new File(file.getPath() + ".tmp");
+            try (OutputStream out = new FileOutputStream(tmp)) {
+                out.write(header);
+                byte[] chunk = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(chunk)) != -1) out.write(chunk, 0, read);
+            }
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+                throw new IOException("Could not rename " + tmp);
+            }
+        }
+    }
+
+    /** The recipes currently served: the catalog if loaded, else the built-in ones. */
+    private static synchronized RecipeSource source() {
+        RecipeCatalog loaded = catalog;
+        if (loaded != null) return loaded;
+        if (builtIn == null) {
+            builtIn = RecipeSource.of(recipes);
+        }
+        return builtIn;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,277 @@
+package com.example.recepiesuggestor.data;
+
+import com.example.recepiesuggestor.Recipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Inverted index from required ingredient to recipes, built once per recipe list.
+ *
+ * Ingredients are compared as {@link IngredientVocabulary} ids, so a recipe requirement is
+ * satisfied only by an available name with the same normalized form ("Tomatoes" satisfies
+ * "tomato", but "oil" no longer satisfies "boil" nor "olive oil" satisfies "oil"). Matching
+ * looks up the available ids, then counts satisfied requirements over the posting lists of
+ * those ids only; recipes whose count reaches their required count are returned in list order.
+ *
+ * {@link #rank} relaxes the all-or-nothing rule: it scores every recipe sharing at least one
+ * ingredient with the available ones by weighted coverage and returns the best K, each with
+ * the ingredients still missing.
+ *
+ * Immutable and thread-safe once built.
+ */
+public final class RecipeIndex {
+
+    /** Weights for {@link #rank}. */
+    public static final class Scoring {
+        /** Pantry staples count a quarter; each missing ingredient costs 0.1 on top of coverage. */
+        public static final Scoring DEFAULT = new Scoring(Arrays.asList(
+                "salt", "pepper", "black pepper", "oil", "olive oil", "vegetable oil", "water",
+                "sugar", "flour", "butter", "ice"), 0.25, 0.1);
+
+        // Normalized staple names; resolved to ids per query so building a Scoring interns nothing
+        private final Set<String> staples;
+        public final double stapleWeight;
+        public final double missingPenalty;
+
+        /**
+         * @param staples        ingredients most kitchens have; matched after normalization
+         * @param stapleWeight   weight of a staple relative to 1 for any other ingredient
+         * @param missingPenalty subtracted from the score per unit of missing weight
+         */
+        public Scoring(Collection<String> staples, double stapleWeight, double missingPenalty) {
+            if (stapleWeight <= 0) throw new IllegalArgumentException("stapleWeight must be > 0");
+            if (missingPenalty < 0) throw new IllegalArgumentException("missingPenalty must be >= 0");
+            Set<String> normalized = new HashSet<>();
+            for (String staple : staples) normalized.add(IngredientVocabulary.normalize(staple));
+            this.staples = normalized;
+            this.stapleWeight = stapleWeight;
+            this.missingPenalty = missingPenalty;
+        }
+
+        public boolean isStaple(String ingredient) {
+            return staples.contains(IngredientVocabulary.normalize(ingredient));
+        }
+
+        /** Sorted vocabulary ids of the staples some indexed recipe uses; lookup only. */
+        int[] stapleIds() {
+            return IngredientVocabulary.getInstance().idsOf(staples);
+        }
+
+        double weight(int id, int[] stapleIds) {
+            return IngredientSets.contains(stapleIds, id) ? stapleWeight : 1;
+        }
+    }
+
+    /** A recipe from {@link #rank} with its score and the required ingredients not available. */
+    public static final class RankedRecipe {
+        public final Recipe recipe;
+        public final double score;
+        /** Weighted share of the required ingredients that are available, 0..1. */
+        public final double coverage;
+        /** Missing required ingredients, normalized, in vocabulary id order. */
+        public final List<String> missing;
+
+        RankedRecipe(Recipe recipe, double score, double coverage, List<String> missing) {
+            this.recipe = recipe;
+            this.score = score;
+            this.coverage = coverage;
+            this.missing = Collections.unmodifiableList(missing);
+        }
+
+        public boolean isComplete() {
+            return missing.isEmpty();
+        }
+    }
+
+    private static final class Candidate {
+        final int recipe;
+        final double score;
+        final double coverage;
+
+        Candidate(int recipe, double score, double coverage) {
+            this.recipe = recipe;
+            this.score = score;
+            this.coverage = coverage;
+        }
+    }
+
+    // Best first: higher score, then earlier in the recipe list
+    private static final Comparator<Candidate> BEST_FIRST = (a, b) -> {
+        int byScore = Double.compare(b.score, a.score);
+        return byScore != 0 ? byScore : Integer.compare(a.recipe, b.recipe);
+    };
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * Per-recipe accumulators of a query, reused across queries on the same thread. Entries are
+     * zero between queries: each query clears exactly the recipes it touched.
+     */
+    private static final class Scratch {
+        double[] covered = new double[0];
+        int[] counts = new int[0];
+        int[] touched = new int[0];
+
+        Scratch ensure(int recipes) {
+            if (touched.length < recipes) {
+                covered = new double[recipes];
+                counts = new int[recipes];
+                touched = new int[recipes];
+            }
+            return this;
+        }
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final RecipeSource recipes;
+    // Recipes requiring each vocabulary id, ascending; empty for ids no recipe uses
+    private final int[][] postings;
+    // Required ingredient id set of each recipe
+    private final int[][] recipeIngredients;
+    private final int ingredientCount;
+
+    public RecipeIndex(List<Recipe> recipes) {
+        this(RecipeSource.of(recipes));
+    }
+
+    RecipeIndex(RecipeSource recipes) {
+        this.recipes = recipes;
+        this.recipeIngredients = new int[recipes.size()][];
+
+        int maxId = -1;
+        for (int r = 0; r < recipes.size(); r++) {
+            recipeIngredients[r] = recipes.getIngredientIds(r);
+            for (int id : recipeIngredients[r]) maxId = Math.max(maxId, id);
+        }
+
+        // Two passes over the id sets: count postings per id, then fill them in recipe order
+        int[] sizes = new int[maxId + 1];
+        for (int[] ids : recipeIngredients) {
+            for (int id : ids) sizes[id]++;
+        }
+        this.postings = new int[maxId + 1][];
+        int distinct = 0;
+        for (int id = 0; id <= maxId; id++) {
+            postings[id] = sizes[id] == 0 ? EMPTY : new int[sizes[id]];
+            if (sizes[id] > 0) distinct++;
+            sizes[id] = 0;
+        }
+        for (int r = 0; r < recipeIngredients.length; r++) {
+            for (int id : recipeIngredients[r]) postings[id][sizes[id]++] = r;
+        }
+        this.ingredientCount = distinct;
+    }
+
+    /** Number of indexed recipes. */
+    public int size() {
+        return recipes.size();
+    }
+
+    /** Number of distinct required ingredients across all recipes. */
+    public int getIngredientCount() {
+        return ingredientCount;
+    }
+
+    /** Recipes whose every required ingredient is satisfied by {@code available}, in list order. */
+    public List<Recipe> match(Collection<String> available) {
+        Scratch scratch = SCRATCH.get().ensure(recipes.size());
+        int[] counts = scratch.counts;
+        int[] touched = scratch.touched;
+        int touchedCount = 0;
+        List<Integer> complete = new ArrayList<>();
+        try {
+            for (int id : availableIds(available)) {
+                for (int r : postings[id]) {
+                    if (counts[r] == 0) touched[touchedCount++] = r;
+                    if (++counts[r] == recipeIngredients[r].length) complete.add(r);
+                }
+            }
+        } finally {
+            for (int i = 0; i < touchedCount; i++) counts[touched[i]] = 0;
+        }
+        Collections.sort(complete);
+        List<Recipe> matches = new ArrayList<>(complete.size());
+        for (int r : complete) matches.add(recipes.getRecipe(r));
+        return matches;
+    }
+
+    /**
+     * The {@code k} best recipes for {@code available}, best first, including ones with missing
+     * ingredients. Score is weighted coverage minus {@link Scoring#missingPenalty} per unit of
+     * missing weight; ties go to the recipe listed first. Only recipes sharing an ingredient with
+     * {@code available} are scored, through a heap of size {@code k}.
+     */
+    public List<RankedRecipe> rank(Collection<String> available, int k, Scoring scoring) {
+        if (k < 1) throw new IllegalArgumentException("k must be >= 1");
+        int[] availableIds = availableIds(available);
+        int[] stapleIds = scoring.stapleIds();
+
+        // Available weight per recipe, gathered from the postings of available ingredients only
+        Scratch scratch = SCRATCH.get().ensure(recipes.size());
+        double[] covered = scratch.covered;
+        int[] touched = scratch.touched;
+        int touchedCount = 0;
+        PriorityQueue<Candidate> heap;
+        try {
+            for (int id : availableIds) {
+                double weight = scoring.weight(id, stapleIds);
+                for (int r : postings[id]) {
+                    if (covered[r] == 0) touched[touchedCount++] = r;
+                    covered[r] += weight;
+                }
+            }
+
+            // Min-heap on the best-first order: the root is the weakest of the current top k
+            heap = new PriorityQueue<>(Math.min(k, Math.max(1, touchedCount)), Collections.reverseOrder(BEST_FIRST));
+            for (int i = 0; i < touchedCount; i++) {
+                int r = touched[i];
+                double total = 0;
+                for (int id : recipeIngredients[r]) total += scoring.weight(id, stapleIds);
+                double missingWeight = total - covered[r];
+                Candidate candidate = new Candidate(r, covered[r] / total - scoring.missingPenalty * missingWeight,
+                        covered[r] / total);
+                if (heap.size() < k) {
+                    heap.add(candidate);
+                } else if (BEST_FIRST.compare(candidate, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+            }
+        } finally {
+            for (int i = 0; i < touchedCount; i++) covered[touched[i]] = 0;
+        }
+
+        List<Candidate> best = new ArrayList<>(heap);
+        Collections.sort(best, BEST_FIRST);
+        IngredientVocabulary vocabulary = IngredientVocabulary.getInstance();
+        List<RankedRecipe> ranked = new ArrayList<>(best.size());
+        for (Candidate candidate : best) {
+            List<String> missing = new ArrayList<>();
+            for (int id : IngredientSets.difference(recipeIngredients[candidate.recipe], availableIds)) {
+                missing.add(vocabulary.nameOf(id));
+            }
+            ranked.add(new RankedRecipe(recipes.getRecipe(candidate.recipe), candidate.score,
+                    candidate.coverage, missing));
+        }
+        return ranked;
+    }
+
+    /** Sorted vocabulary ids of the available names that some recipe requires. */
+    private int[] availableIds(Collection<String> available) {
+        int[] ids = IngredientVocabulary.getInstance().idsOf(available);
+        int n = 0;
+        for (int id : ids) {
+            if (id < postings.length && postings[id].length > 0) ids[n++] = id;
+        }
+        return n == ids.length ? ids : Arrays.copyOf(ids, n);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.recepiesuggestor.data;
+
+import com.example.recepiesuggestor.Recipe;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recipes by position, with each recipe's ingredient ids readable without building the
+ * {@link Recipe} itself, so indexes can be built over catalogs that never sit on the heap.
+ */
+interface RecipeSource {
+
+    int size();
+
+    /** Sorted, duplicate-free {@link IngredientVocabulary} ids of recipe {@code r}. */
+    int[] getIngredientIds(int r);
+
+    Recipe getRecipe(int r);
+
+    /**
+     * A source over a copy of {@code recipes}; {@link #getRecipe} returns the same objects.
+     * Interns every recipe's ingredients, so only use it for recipes that get indexed.
+     */
+    static RecipeSource of(List<Recipe> recipes) {
+        final List<Recipe> copy = new ArrayList<>(recipes);
+        final int[][] ids = new int[copy.size()][];
+        IngredientVocabulary vocabulary = IngredientVocabulary.getInstance();
+        for (int r = 0; r < ids.length; r++) ids[r] = vocabulary.internAll(copy.get(r).getIngredients());
+        return new RecipeSource() {
+            @Override
+            public int size() {
+                return copy.size();
+            }
+
+            @Override
+            public int[] getIngredientIds(int r) {
+                return ids[r].clone();
+            }
+
+            @Override
+            public Recipe getRecipe(int r) {
+                return copy.get(r);
+            }
+        };
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.recepiesuggestor.models;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.ml.perceptron.PerceptronModel;
+import opennlp.tools.postag.POSDictionary;
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.postag.POSTaggerFactory;
+import opennlp.tools.postag.POSTaggerME;
+import opennlp.tools.postag.TagDictionary;
+
+/**
+ * Flat binary form of a POS model: no zip container, no per-artifact buffering, predicates
+ * sharing outcome patterns stored once. {@link #read} decodes it from a ByteBuffer (in the app,
+ * a mapping of the file) into the heap arrays OpenNLP's model classes need; that is a single
+ * sequential pass, much cheaper on a cold start than inflating and parsing the model archive,
+ * but the resulting model takes as much heap as one parsed from the archive.
+ *
+ * Only perceptron and GIS models without an n-gram dictionary are supported; {@link #write}
+ * reports anything else as unsupported so callers keep using the archive.
+ */
+final class CompactPosModel {
+
+    private static final int MAGIC = 0x43504f53; // "CPOS"
+    private static final int VERSION = 1;
+    private static final byte TYPE_PERCEPTRON = 0;
+    private static final byte TYPE_MAXENT = 1;
+    private static final String VERSION_PROPERTY = "OpenNLP-Version";
+    private static final String BEAM_SIZE_PROPERTY = "BeamSize";
+    private static final String FEATUREGEN_ARTIFACT = "generator.featuregen";
+    // Artifact names behind POSModel.getPosModel() (deprecated) and POSTaggerFactory.getDictionary()
+    private static final String MAXENT_ARTIFACT = "pos.model";
+    private static final String NGRAM_DICTIONARY_ARTIFACT = "ngram.dictionary";
+    private static final int DEFAULT_BEAM_SIZE = 3;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private CompactPosModel() {}
+
+    /** Whether {@link #write} can represent the model. */
+    static boolean isSupported(POSModel model) {
+        Object maxent = model.getArtifact(MAXENT_ARTIFACT);
+        TagDictionary tags = model.getFactory().getTagDictionary();
+        return (maxent instanceof PerceptronModel || maxent instanceof GISModel)
+                && model.getArtifact(NGRAM_DICTIONARY_ARTIFACT) == null
+                && (tags == null || tags instanceof POSDictionary);
+    }
+
+    /**
+     * Identifies a model archive by name and a checksum of its content, so a compact copy is
+     * rebuilt whenever the asset changes, even if its size does not.
+     */
+    static String sourceOf(String name, InputStream in) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        long length = 0;
+        for (int n; (n = in.read(buffer)) > 0; length += n) crc.update(buffer, 0, n);
+        return name + "@" + length + ":" + Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * Serializes {@code model}, tagged with {@code source} so a stale file can be recognised.
+     *
+     * @throws IllegalArgumentException if the model is not {@link #isSupported supported}.
+     */
+    @SuppressWarnings("unchecked")
+    static void write(POSModel model, String source, OutputStream out) throws IOException {
+        if (!isSupported(model)) throw new IllegalArgumentException("Unsupported POS model");
+        AbstractModel maxent = model.getArtifact(MAXENT_ARTIFACT);
+        Object[] data = maxent.getDataStructures();
+        Map<String, Context> predicates = (Map<String, Context>) data[1];
+        String[] outcomes = (String[]) data[2];
+
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        dos.writeInt(VERSION);
+        writeString(dos, source);
+        writeString(dos, model.getLanguage());
+        writeString(dos, model.getManifestProperty(VERSION_PROPERTY));
+        String beamSize = model.getManifestProperty(BEAM_SIZE_PROPERTY);
+        dos.writeInt(beamSize != null ? Integer.parseInt(beamSize) : DEFAULT_BEAM_SIZE);
+        dos.writeByte(maxent instanceof PerceptronModel ? TYPE_PERCEPTRON : TYPE_MAXENT);
+
+        byte[] featureGenerator = model.getArtifact(FEATUREGEN_ARTIFACT);
+        dos.writeInt(featureGenerator != null ? featureGenerator.length : -1);
+        if (featureGenerator != null) dos.write(featureGenerator);
+
+        POSDictionary tagDictionary = (POSDictionary) model.getFactory().getTagDictionary();
+        dos.writeBoolean(tagDictionary != null);
+        if (tagDictionary != null) {
+            List<String> words = new ArrayList<>();
+            for (String word : tagDictionary) words.add(word);
+            dos.writeBoolean(tagDictionary.isCaseSensitive());
+            dos.writeInt(words.size());
+            for (String word : words) {
+                String[] tags = tagDictionary.getTags(word);
+                writeString(dos, word);
+                dos.writeInt(tags.length);
+                for (String tag : tags) writeString(dos, tag);
+            }
+        }
+
+        dos.writeInt(outcomes.length);
+        for (String outcome : outcomes) writeString(dos, outcome);
+
+        // Most predicates share one of a few outcome patterns; store each pattern once
+        Map<List<Integer>, Integer> patternIds = new HashMap<>();
+        List<int[]> patterns = new ArrayList<>();
+        int[] predicatePattern = new int[predicates.size()];
+        int p = 0;
+        for (Context context : predicates.values()) {
+            int[] pattern = context.getOutcomes();
+            List<Integer> key = new ArrayList<>(pattern.length);
+            for (int o : pattern) key.add(o);
+            Integer id = patternIds.get(key);
+            if (id == null) {
+                id = patterns.size();
+                patternIds.put(key, id);
+                patterns.add(pattern);
+            }
+            predicatePattern[p++] = id;
+        }
+        dos.writeInt(patterns.size());
+        for (int[] pattern : patterns) {
+            dos.writeInt(pattern.length);
+            for (int o : pattern) dos.writeInt(o);
+        }
+
+        dos.writeInt(predicates.size());
+        p = 0;
+        for (Map.Entry<String, Context> e : predicates.entrySet()) {
+            writeString(dos, e.getKey());
+            dos.writeInt(predicatePattern[p++]);
+            for (double parameter : e.getValue().getParameters()) dos.writeDouble(parameter);
+        }
+        dos.flush();
+    }
+
+    /** Reads the {@code source} tag of a serialized model, or null if it isn't one. */
+    static String readSource(ByteBuffer in) {
+        ByteBuffer buffer = in.duplicate();
+        if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+        return readString(buffer, new byte[256]);
+    }
+
+    static POSModel read(ByteBuffer in) throws IOException {
+        ByteBuffer buffer = in.duplicate();
+        try {
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a compact POS model");
+            if (buffer.getInt() != VERSION) throw new IOException("Unsupported compact POS model version");
+            byte[] scratch = new byte[256];
+            readString(buffer, scratch); // source
+            String language = readString(buffer, scratch);
+            String openNlpVersion = readString(buffer, scratch);
+            int beamSize = buffer.getInt();
+            byte type = buffer.get();
+
+            int featureGeneratorLength = buffer.getInt();
+            byte[] featureGenerator = null;
+            if (featureGeneratorLength >= 0) {
+                featureGenerator = new byte[featureGeneratorLength];
+                buffer.get(featureGenerator);
+            }
+
+            POSDictionary tagDictionary = null;
+            if (buffer.get() != 0) {
+                tagDictionary = new POSDictionary(buffer.get() != 0);
+                int words = buffer.getInt();
+                for (int i = 0; i < words; i++) {
+                    String word = readString(buffer, scratch);
+                    String[] tags = new String[buffer.getInt()];
+                    for (int t = 0; t < tags.length; t++) tags[t] = readString(buffer, scratch);
+                    tagDictionary.put(word, tags);
+                }
+            }
+
+            String[] outcomes = new String[buffer.getInt()];
+            for (int i = 0; i < outcomes.length; i++) outcomes[i] = readString(buffer, scratch);
+
+            int[][] patterns = new int[buffer.getInt()][];
+            for (int i = 0; i < patterns.length; i++) {
+                int[] pattern = new int[buffer.getInt()];
+                for (int o = 0; o < pattern.length; o++) pattern[o] = buffer.getInt();
+                patterns[i] = pattern;
+            }
+
+            int predicateCount = buffer.getInt();
+            String[] predicateLabels = new String[predicateCount];
+            Context[] parameters = new Context[predicateCount];
+            for (int i = 0; i < predicateCount; i++) {
+                predicateLabels[i] = readString(buffer, scratch);
+                int[] pattern = patterns[buffer.getInt()];
+                double[] values = new double[pattern.length];
+                for (int v = 0; v < values.length; v++) values[v] = buffer.getDouble();
+                parameters[i] = new Context(pattern, values);
+            }
+
+            MaxentModel maxent = type == TYPE_PERCEPTRON
+                    ? new PerceptronModel(parameters, predicateLabels, outcomes)
+                    : new GISModel(parameters, predicateLabels, outcomes);
+            POSTaggerFactory factory = new POSTaggerFactory(featureGenerator,
+                    Collections.<String, Object>emptyMap(), tagDictionary);
+            // Keep the original version: it decides which context generator the tagger uses
+            Map<String, String> manifest = new HashMap<>();
+            if (openNlpVersion != null) manifest.put(VERSION_PROPERTY, openNlpVersion);
+            return new POSModel(language, maxent, beamSize, manifest, factory);
+        } catch (RuntimeException e) {
+            // Truncated or corrupt file (BufferUnderflowException, bad indexes, ...)
+            throw new IOException("Corrupt compact POS model", e);
+        }
+    }
+
+    /** True if both models tag every sentence identically. */
+    static boolean tagsAgree(POSModel expected, POSModel actual, String[][] sentences) {
+        POSTaggerME a = new POSTaggerME(expected);
+        POSTaggerME b = new POSTaggerME(actual);
+        for (String[] tokens : sentences) {
+            if (!Arrays.equals(a.tag(tokens), b.tag(tokens))) return false;
+        }
+        return true;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in, byte[] scratch) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        in.get(bytes, 0, length);
+        return new String(bytes, 0, length, UTF_8);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.recepiesuggestor.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Small LRU cache from a frame's perceptual hash to the nouns extracted from its description.
+ * A lookup hits when a cached hash is within {@code maxDistance} bits of the frame's hash and
+ * the entry is younger than {@code ttlMs}, letting near-identical frames skip inference.
+ */
+public class DescriptionCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+    public static final long DEFAULT_TTL_MS = 30_000;
+    public static final int DEFAULT_MAX_DISTANCE = 6;
+
+    private static final class Entry {
+        final List<String> nouns;
+        final long createdAtMs;
+
+        Entry(List<String> nouns, long createdAtMs) {
+            this.nouns = nouns;
+            this.createdAtMs = createdAtMs;
+        }
+    }
+
+    private final long ttlMs;
+    private final int maxDistance;
+    private final LinkedHashMap<Long, Entry> entries;
+
+    private long hits;
+    private long misses;
+
+    public DescriptionCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS, DEFAULT_MAX_DISTANCE);
+    }
+
+    public DescriptionCache(final int maxEntries, long ttlMs, int maxDistance) {
+        this.ttlMs = ttlMs;
+        this.maxDistance = maxDistance;
+        this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** Returns the cached nouns for the closest matching frame, or null on a miss. */
+    public synchronized List<String> lookup(long hash, long nowMs) {
+        Long bestKey = null;
+        int bestDistance = Integer.MAX_VALUE;
+        Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Entry> e = it.next();
+            if (nowMs - e.getValue().createdAtMs > ttlMs) {
+                it.remove(); // expired
+                continue;
+            }
+            int distance = Long.bitCount(e.getKey() ^ hash);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestKey = e.getKey();
+            }
+        }
+        if (bestKey == null || bestDistance > maxDistance) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entries.get(bestKey).nouns; // get() refreshes LRU order
+    }
+
+    public synchronized void put(long hash, List<String> nouns, long nowMs) {
+        entries.put(hash, new Entry(Collections.unmodifiableList(new ArrayList<>(nouns)), nowMs));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /** Fraction of lookups served from the cache, 0 when nothing was looked up yet. */
+    public synchronized float getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0f : (float) hits / total;
+    }
+}
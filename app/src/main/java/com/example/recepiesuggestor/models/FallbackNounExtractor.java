@@ -0,0 +1,159 @@
+package com.example.recepiesuggestor.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Regex-and-heuristics noun extractor used when POS tagging finds nothing. Phrase patterns
+ * ("holds a ...", "next to the ...") pick candidate phrases and the head word of each part
+ * is kept; if no pattern matches, every longer non-stopword is kept instead.
+ *
+ * Patterns are compiled once and their matchers reused; candidate phrases are scanned in a
+ * single pass over the text rather than with split/replaceAll/matches per candidate.
+ */
+public final class FallbackNounExtractor {
+
+    private static final Set<String> STOPWORDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "a", "an", "the", "and", "or", "but", "with", "without", "of", "in", "on", "for",
+            "to", "from", "by", "is", "are", "was", "were", "be", "been", "this", "that", "these",
+            "those", "it", "its", "as", "at", "about", "into", "over", "under", "other", "some", "next"
+    )));
+
+    // Common patterns in image descriptions; capture groups that often contain objects
+    private static final String[] PATTERN_SOURCES = {
+            "holds? (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
+            "contains? (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
+            "on (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
+            "next to (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
+            "with (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
+            "there (?:is|are) (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
+            "(?:a |an |the )([\\w\\s-]+?)(?:\\.|,| and |$)"
+    };
+
+    private static final Pattern[] PATTERNS = new Pattern[PATTERN_SOURCES.length];
+
+    static {
+        for (int i = 0; i < PATTERN_SOURCES.length; i++) {
+            PATTERNS[i] = Pattern.compile(PATTERN_SOURCES[i], Pattern.CASE_INSENSITIVE);
+        }
+    }
+
+    private final Matcher[] matchers = new Matcher[PATTERNS.length];
+    private final StringBuilder word = new StringBuilder(32);
+
+    public FallbackNounExtractor() {
+        for (int i = 0; i < PATTERNS.length; i++) {
+            matchers[i] = PATTERNS[i].matcher("");
+        }
+    }
+
+    /** Returns candidate nouns in first-seen order, deduplicated (case-sensitive). */
+    public synchronized List<String> extract(CharSequence text) {
+        List<String> nouns = new ArrayList<>();
+        if (text == null || text.length() == 0) return nouns;
+
+        LinkedHashSet<String> set = new LinkedHashSet<>();
+        for (Matcher m : matchers) {
+            m.reset(text);
+            while (m.find()) {
+                if (m.start(1) >= 0) addPhraseHeads(text, m.start(1), m.end(1), set);
+            }
+            m.reset("");
+        }
+
+        // As a final fallback, pick words longer than 2 characters that aren't stopwords
+        if (set.isEmpty()) addWords(text, set);
+
+        nouns.addAll(set);
+        return nouns;
+    }
+
+    /** Splits a matched phrase on the word "and" and keeps the last word of each part. */
+    private void addPhraseHeads(CharSequence text, int start, int end, Set<String> out) {
+        int partStart = start;
+        for (int i = start; i <= end - 3; i++) {
+            if (text.charAt(i) == 'a' && text.charAt(i + 1) == 'n' && text.charAt(i + 2) == 'd'
+                    && (i == start || !isWordChar(text.charAt(i - 1)))
+                    && (i + 3 == end || !isWordChar(text.charAt(i + 3)))) {
+                addHead(text, partStart, i, out);
+                partStart = i + 3;
+                i += 2;
+            }
+        }
+        addHead(text, partStart, end, out);
+    }
+
+    /** Keeps the last whitespace-separated word of a part (underscores dropped) if it qualifies. */
+    private void addHead(CharSequence text, int start, int end, Set<String> out) {
+        int i = end - 1;
+        // Skip trailing whitespace and tokens that vanish once underscores are removed
+        while (true) {
+            while (i >= start && isSpace(text.charAt(i))) i--;
+            if (i < start) return;
+            int tokenEnd = i;
+            boolean hasContent = false;
+            while (i >= start && !isSpace(text.charAt(i))) {
+                if (text.charAt(i) != '_') hasContent = true;
+                i--;
+            }
+            if (hasContent) {
+                word.setLength(0);
+                for (int j = i + 1; j <= tokenEnd; j++) {
+                    char c = text.charAt(j);
+                    if (c != '_') word.append(c);
+                }
+                break;
+            }
+        }
+        if (word.length() > 1 && !isDigits(word)) {
+            String head = word.toString();
+            if (!STOPWORDS.contains(head.toLowerCase(Locale.ROOT))) out.add(head);
+        }
+    }
+
+    /** Adds every ASCII alphanumeric run longer than two characters that isn't a stopword. */
+    private void addWords(CharSequence text, Set<String> out) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !isAsciiAlnum(text.charAt(i))) i++;
+            int start = i;
+            while (i < length && isAsciiAlnum(text.charAt(i))) i++;
+            if (i - start <= 2) continue;
+            word.setLength(0);
+            word.append(text, start, i);
+            if (isDigits(word)) continue;
+            String s = word.toString();
+            if (!STOPWORDS.contains(s.toLowerCase(Locale.ROOT))) out.add(s);
+        }
+    }
+
+    private static boolean isDigits(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    private static boolean isAsciiAlnum(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isWordChar(char c) {
+        return isAsciiAlnum(c) || c == '_';
+    }
+
+    // Matches the regex \s class the phrase patterns use
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+}
@@ -2,21 +2,27 @@ package com.example.recepiesuggestor.models;
 
 import android.content.Context;
 import android.graphics.Bitmap;
+import android.graphics.Rect;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.camera.core.ImageProxy;
 
 import com.example.recepiesuggestor.data.IngredientAccumulator;
+import com.example.recepiesuggestor.utils.FramePool;
+import com.example.recepiesuggestor.utils.PerceptualHash;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.mlkit.genai.common.DownloadCallback;
 import com.google.mlkit.genai.common.FeatureStatus;
 import com.google.mlkit.genai.imagedescription.ImageDescriber;
 import com.google.mlkit.genai.imagedescription.ImageDescriberOptions;
 import com.google.mlkit.genai.imagedescription.ImageDescription;
 import com.google.mlkit.genai.imagedescription.ImageDescriptionRequest;
+import com.google.mlkit.genai.imagedescription.ImageDescriptionResult;
 import com.google.mlkit.genai.common.GenAiException;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ImageDescriberSingleton {
     // 1. The single instance of the class
@@ -32,6 +38,75 @@ public class ImageDescriberSingleton {
 
     private NounsListener nounsListener;
 
+    public interface InferenceLatencyListener {
+        void onInferenceLatency(long latencyMs);
+    }
+
+    private volatile InferenceLatencyListener inferenceLatencyListener;
+
+    /** Lifecycle of the on-device image description feature. */
+    public enum FeatureState { UNKNOWN, CHECKING, DOWNLOADABLE, DOWNLOADING, AVAILABLE, UNAVAILABLE, FAILED }
+
+    public interface FeatureStateListener {
+        void onFeatureStateChanged(FeatureState previous, FeatureState current);
+        void onDownloadProgress(long bytesDownloaded);
+    }
+
+    private final Object featureLock = new Object();
+    private volatile FeatureState featureState = FeatureState.UNKNOWN;
+    // Latest frame that arrived while the feature was not ready yet
+    private Bitmap pendingFrame;
+    private volatile FeatureStateListener featureStateListener;
+    // When a FAILED feature may be checked again; guarded by featureLock
+    private final RetryBackoff featureRetry = new RetryBackoff(FEATURE_RETRY_INITIAL_MS, FEATURE_RETRY_MAX_MS);
+    private final android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1;
+    /** First wait before a failed status check or download is retried; doubles per failure. */
+    public static final long FEATURE_RETRY_INITIAL_MS = 5_000;
+    public static final long FEATURE_RETRY_MAX_MS = 5 * 60_000;
+
+    /** One frame's trip from submission through the last streamed chunk. */
+    private static final class InferenceRequest {
+        final long id;
+        final Bitmap bitmap;
+        final long frameHash;
+        final DescriptionCache cache;
+        final TileSchedule schedule;
+        final int tile;
+        final long submittedAt;
+        volatile long startedAt;
+        volatile int chunks;
+
+        InferenceRequest(long id, Bitmap bitmap, long frameHash, DescriptionCache cache,
+                         TileSchedule schedule, int tile, long submittedAt) {
+            this.id = id;
+            this.bitmap = bitmap;
+            this.frameHash = frameHash;
+            this.cache = cache;
+            this.schedule = schedule;
+            this.tile = tile;
+            this.submittedAt = submittedAt;
+        }
+    }
+
+    private final Object inFlightLock = new Object();
+    private final List<InferenceRequest> inFlight = new ArrayList<>();
+    private InferenceRequest waiting;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    // Frames released without being described, whatever the reason
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong requestIds = new AtomicLong();
+
+    // Near-duplicate frames reuse the nouns of an earlier description instead of re-running inference
+    private volatile DescriptionCache descriptionCache = new DescriptionCache();
+    private final FallbackNounExtractor fallbackExtractor = new FallbackNounExtractor();
+
+    // Tiled mode: each frame is cropped to the next tile of the schedule before description
+    private volatile TileSchedule tileSchedule;
+    private final Object tileLock = new Object();
+    private int[] tilePixels = new int[0];
+
     // 3. Private constructor to prevent direct instantiation
     private ImageDescriberSingleton(Context context) {
         // Initialize the ImageLabeler here
@@ -43,12 +118,11 @@ public class ImageDescriberSingleton {
         imageDescriber = ImageDescription.getClient(options);
         activityContext = context;
 
-        try {
-            // Delegate initialization to NLPTagger which handles assets and threading
-            com.example.recepiesuggestor.models.NLPTagger.get(context).init();
-        } catch (Exception e) {
-            Log.e("NLP_INIT", "Error initializing NLPTagger", e);
-        }
+        // Load the POS model in the background; until it is ready extraction uses heuristics
+        com.example.recepiesuggestor.models.NLPTagger.get(context).initAsync();
+
+        // Check (and if needed download) the feature up front so the first frame rarely waits
+        checkFeatureStatus();
     }
 
     // 4. Public method to get the single instance
@@ -63,39 +137,225 @@ public class ImageDescriberSingleton {
         this.nounsListener = nounsListener;
     }
 
+    /** Replaces the frame dedup cache (e.g. with another size/TTL); null disables it. */
+    public void setDescriptionCache(DescriptionCache cache) {
+        this.descriptionCache = cache;
+    }
+
+    public DescriptionCache getDescriptionCache() {
+        return descriptionCache;
+    }
+
+    /**
+     * Enables tiled mode: instead of the whole frame, each frame's next tile (round robin) is
+     * described, so crowded scenes are covered over a few frames at unchanged per-frame cost.
+     * Tiles are cut from the bitmaps passed in, so pair this with a larger preprocessing size.
+     * The listener still gets each tile's nouns as they stream in, but the accumulator gets the
+     * merged nouns once per sweep, so an item spanning overlapping tiles counts as one sighting.
+     * Null turns tiled mode off.
+     */
+    public void setTileSchedule(TileSchedule schedule) {
+        this.tileSchedule = schedule;
+    }
+
+    public TileSchedule getTileSchedule() {
+        return tileSchedule;
+    }
+
+    /**
+     * Receives the time each runInference call took, from its start to completion. Time spent
+     * waiting for an inference slot is left out: it depends on how many frames the sampler lets
+     * through, and feeding it back would make the sampler chase its own queueing.
+     */
+    public void setInferenceLatencyListener(InferenceLatencyListener listener) {
+        this.inferenceLatencyListener = listener;
+    }
+
+    /**
+     * Describes a frame once the on-device feature is ready. The feature status is checked once
+     * and downloaded at most once; while that is in progress only the latest frame is kept and
+     * earlier ones are dropped. After a failed check or download, frames are dropped until the
+     * retry backoff expires, and the next frame then starts a new check. Never blocks the
+     * calling thread.
+     *
+     * Takes ownership of {@code bitmap} in every case: it is returned to the {@link FramePool}
+     * once described or dropped, and the caller must not touch it afterwards.
+     */
     public void prepareAndStartImageDescription(
             Bitmap bitmap,
             ImageProxy imageProxy
-    ) throws ExecutionException, InterruptedException {
-        try {
-            int featureStatus = imageDescriber.checkFeatureStatus().get();
-            if (featureStatus == FeatureStatus.DOWNLOADABLE) {
-
-                imageDescriber.downloadFeature(new DownloadCallback() {
-                    @Override
-                    public void onDownloadCompleted() {
-                        startImageDescriptionRequest(bitmap, imageProxy);
+    ) {
+        Bitmap dropped = null;
+        boolean retry = false;
+        boolean checkStatus = false;
+        boolean park = false;
+        boolean start = false;
+        synchronized (featureLock) {
+            switch (featureState) {
+                case AVAILABLE:
+                    start = true;
+                    break;
+                case UNAVAILABLE:
+                    dropped = bitmap;
+                    break;
+                case FAILED:
+                    if (featureRetry.isDue(SystemClock.elapsedRealtime())) {
+                        retry = true;
+                        checkStatus = true;
+                        park = true;
+                    } else {
+                        dropped = bitmap;
                     }
+                    break;
+                case UNKNOWN:
+                    checkStatus = true;
+                    park = true;
+                    break;
+                default:
+                    // CHECKING / DOWNLOADABLE / DOWNLOADING
+                    park = true;
+                    break;
+            }
+            if (park) {
+                // Wait for the status to be known; latest frame wins
+                dropped = pendingFrame;
+                pendingFrame = bitmap;
+            }
+        }
+        if (dropped != null) dropFrame(dropped);
+        if (retry) resetFeatureState();
+        if (checkStatus) checkFeatureStatus();
+        if (start) startImageDescriptionRequest(bitmap, imageProxy);
+    }
 
-                    @Override
-                    public void onDownloadFailed(GenAiException e) {}
+    public FeatureState getFeatureState() {
+        return featureState;
+    }
 
-                    @Override
-                    public void onDownloadProgress(long totalBytesDownloaded) {}
+    /** Receives feature status transitions and download progress on the main thread. */
+    public void setFeatureStateListener(FeatureStateListener listener) {
+        this.featureStateListener = listener;
+    }
 
-                    @Override
-                    public void onDownloadStarted(long bytesDownloaded) {}
-                });
+    /**
+     * Forgets a failed check or download so the next frame starts over, without waiting for
+     * the retry backoff.
+     */
+    public void resetFeatureState() {
+        moveTo(FeatureState.FAILED, FeatureState.UNKNOWN);
+    }
+
+    private void checkFeatureStatus() {
+        if (!moveTo(FeatureState.UNKNOWN, FeatureState.CHECKING)) return;
+        ListenableFuture<Integer> status = imageDescriber.checkFeatureStatus();
+        status.addListener(() -> {
+            int featureStatus;
+            try {
+                featureStatus = status.get();
+            } catch (Exception e) {
+                Log.e("DESCRIBER_FEATURE", "Feature status check failed", e);
+                moveTo(FeatureState.FAILED);
+                return;
+            }
+            if (featureStatus == FeatureStatus.AVAILABLE) {
+                moveTo(FeatureState.AVAILABLE);
+            } else if (featureStatus == FeatureStatus.DOWNLOADABLE) {
+                moveTo(FeatureState.DOWNLOADABLE);
+                downloadFeature();
             } else if (featureStatus == FeatureStatus.DOWNLOADING) {
-                startImageDescriptionRequest(bitmap, imageProxy);
-            } else if (featureStatus == FeatureStatus.AVAILABLE) {
-                startImageDescriptionRequest(bitmap, imageProxy);
-            } else if (featureStatus == FeatureStatus.UNAVAILABLE) {
-                //imageProxy.close();
+                // Another client started the download; subscribe to its completion
+                downloadFeature();
+            } else {
+                moveTo(FeatureState.UNAVAILABLE);
+            }
+        }, Runnable::run);
+    }
+
+    private void downloadFeature() {
+        // Only the first caller gets to start the download
+        if (!moveTo(FeatureState.DOWNLOADING)) return;
+        imageDescriber.downloadFeature(new DownloadCallback() {
+            @Override
+            public void onDownloadCompleted() {
+                moveTo(FeatureState.AVAILABLE);
+            }
+
+            @Override
+            public void onDownloadFailed(GenAiException e) {
+                Log.e("DESCRIBER_FEATURE", "Feature download failed", e);
+                moveTo(FeatureState.FAILED);
+            }
+
+            @Override
+            public void onDownloadProgress(long totalBytesDownloaded) {
+                notifyDownloadProgress(totalBytesDownloaded);
+            }
+
+            @Override
+            public void onDownloadStarted(long bytesDownloaded) {
+                notifyDownloadProgress(bytesDownloaded);
+            }
+        });
+    }
+
+    private boolean moveTo(FeatureState next) {
+        return moveTo(null, next);
+    }
+
+    /**
+     * Applies a state transition (only from {@code expected}, unless null), then starts or drops
+     * the parked frame as the new state requires. Returns false if nothing changed.
+     */
+    private boolean moveTo(FeatureState expected, FeatureState next) {
+        FeatureState previous;
+        Bitmap parked = null;
+        synchronized (featureLock) {
+            previous = featureState;
+            if (previous == next || (expected != null && previous != expected)) return false;
+            featureState = next;
+            if (next == FeatureState.FAILED) {
+                featureRetry.onFailure(SystemClock.elapsedRealtime());
+            } else if (next == FeatureState.AVAILABLE) {
+                featureRetry.onSuccess();
+            }
+            if (next == FeatureState.AVAILABLE || next == FeatureState.UNAVAILABLE || next == FeatureState.FAILED) {
+                parked = pendingFrame;
+                pendingFrame = null;
             }
-        } catch (ExecutionException | InterruptedException e) {
-//            imageProxy.close();
         }
+        Log.d("DESCRIBER_FEATURE", previous + " -> " + next);
+
+        FeatureStateListener listener = featureStateListener;
+        if (listener != null) {
+            mainHandler.post(() -> listener.onFeatureStateChanged(previous, next));
+        }
+
+        if (parked != null) {
+            if (next == FeatureState.AVAILABLE) {
+                startImageDescriptionRequest(parked, null);
+            } else {
+                dropFrame(parked);
+            }
+        }
+        return true;
+    }
+
+    private void notifyDownloadProgress(long bytesDownloaded) {
+        FeatureStateListener listener = featureStateListener;
+        if (listener != null) {
+            mainHandler.post(() -> listener.onDownloadProgress(bytesDownloaded));
+        }
+    }
+
+    /** Returns a frame bitmap to the analysis pool once nothing reads it anymore. */
+    private void releaseFrame(Bitmap bitmap) {
+        FramePool.getInstance().releaseBitmap(bitmap);
+    }
+
+    /** Releases a frame that will not be described and counts it as dropped. */
+    private void dropFrame(Bitmap bitmap) {
+        droppedFrames.incrementAndGet();
+        releaseFrame(bitmap);
     }
 
 //    public void startImageDescriptionRequest(
@@ -121,135 +381,269 @@ public class ImageDescriberSingleton {
             Bitmap bitmap,
             ImageProxy imageProxy
     ) {
-        ImageDescriptionRequest imageDescriptionRequest =
-                ImageDescriptionRequest.builder(bitmap).build();
+        TileSchedule schedule = tileSchedule;
+        DescriptionCache cache = descriptionCache;
+        int tile = -1;
+        long frameHash = 0;
+        List<String> cached = null;
+        try {
+            if (schedule != null) {
+                tile = schedule.nextTile();
+                Bitmap frame = bitmap;
+                bitmap = cropTile(frame, schedule.tileBounds(tile, frame.getWidth(), frame.getHeight()));
+                releaseFrame(frame);
+            }
+            if (cache != null) {
+                frameHash = PerceptualHash.dHash(bitmap);
+                cached = cache.lookup(frameHash, SystemClock.elapsedRealtime());
+            }
+        } catch (RuntimeException e) {
+            Log.e("DESCRIBER_REQUEST", "Could not prepare frame", e);
+            dropFrame(bitmap);
+            return;
+        }
+        if (cached != null) {
+            reuseDescription(bitmap, schedule, tile, cached);
+            return;
+        }
 
-        imageDescriber.runInference(imageDescriptionRequest, newText -> {
-            Log.d("ingredients", newText);
+        InferenceRequest request = new InferenceRequest(requestIds.incrementAndGet(), bitmap,
+                frameHash, cache, schedule, tile, SystemClock.elapsedRealtime());
+        InferenceRequest replaced = null;
+        boolean runNow;
+        synchronized (inFlightLock) {
+            runNow = inFlight.size() < maxInFlight;
+            if (runNow) {
+                inFlight.add(request);
+            } else {
+                // Backpressure: only the newest frame waits for a free slot
+                replaced = waiting;
+                waiting = request;
+            }
+        }
+        if (replaced != null) dropFrame(replaced.bitmap);
+        if (runNow) runInference(request);
+    }
+
+    private void runInference(InferenceRequest request) {
+        ImageDescriptionRequest imageDescriptionRequest =
+                ImageDescriptionRequest.builder(request.bitmap).build();
 
-            // First try POS-based extraction via NLPTagger (delegated in extractNouns)
-            List<String> nouns = extractNouns(newText);
-            // If empty, run a simple fallback extractor here to ensure we return something
-            if (nouns == null || nouns.isEmpty()) {
-                List<String> fb = fallbackExtractNouns(newText);
-                if (!fb.isEmpty()) nouns = fb;
+        request.startedAt = SystemClock.elapsedRealtime();
+        // Tags each sentence once, as soon as it is complete, and only publishes new nouns
+        IncrementalNounExtractor extractor = new IncrementalNounExtractor(this::extractSentenceNouns);
+        ListenableFuture<ImageDescriptionResult> inference;
+        try {
+            inference = imageDescriber.runInference(imageDescriptionRequest, newText -> {
+                Log.d("ingredients", newText);
+                request.chunks++;
+
+                List<String> nouns = extractor.append(newText);
+                if (!nouns.isEmpty()) publishNouns(nouns, request.schedule);
+
+//                imageProxy.close();
+            });
+        } catch (RuntimeException e) {
+            // No future will ever complete for this request; free its slot now
+            Log.e("DESCRIBER_REQUEST", "#" + request.id + " could not start", e);
+            dropFrame(request.bitmap);
+            onInferenceFinished(request);
+            return;
+        }
+        // Streaming has finished (or failed) once the future completes; the bitmap is free again
+        inference.addListener(() -> {
+            long finishedAt = SystemClock.elapsedRealtime();
+            boolean success = succeeded(inference);
+            if (success) {
+                releaseFrame(request.bitmap);
+            } else {
+                dropFrame(request.bitmap);
+            }
+            // The trailing sentence of a failed description may be cut off mid-word; skip it
+            if (success) {
+                List<String> nouns = extractor.finish();
+                if (!nouns.isEmpty()) publishNouns(nouns, request.schedule);
+            }
+            Log.d("DESCRIBER_REQUEST", "#" + request.id + (success ? " done" : " failed")
+                    + ": waited " + (request.startedAt - request.submittedAt) + " ms"
+                    + ", inference " + (finishedAt - request.startedAt) + " ms"
+                    + ", " + request.chunks + " chunks, "
+                    + extractor.getExtractedSentenceCount() + " sentences tagged");
+
+            InferenceLatencyListener latencyListener = inferenceLatencyListener;
+            if (latencyListener != null) {
+                latencyListener.onInferenceLatency(finishedAt - request.startedAt);
+            }
+            List<String> described = success ? extractor.getNouns() : new ArrayList<String>();
+            if (request.cache != null && success) {
+                request.cache.put(request.frameHash, described, finishedAt);
+            }
+            if (request.schedule != null) {
+                onTileDescribed(request.schedule, request.tile, described);
             }
+            onInferenceFinished(request);
+        }, Runnable::run);
+    }
 
-            // Add to app-scoped accumulator (deduplicated, preserved order)
-            try {
-                if (nouns != null && !nouns.isEmpty()) {
-                    IngredientAccumulator.getInstance().addIngredientNames(activityContext, nouns);
-                }
-            } catch (Exception e) {
+    /** Same scene as a recent description: publishes its nouns instead of running inference. */
+    private void reuseDescription(Bitmap bitmap, TileSchedule schedule, int tile, List<String> cached) {
+        publishNouns(cached, schedule);
+        releaseFrame(bitmap);
+        if (schedule != null) onTileDescribed(schedule, tile, cached);
+    }
+
+    /** Records a tile's nouns; once a sweep completes, its merged nouns go to the accumulator. */
+    private void onTileDescribed(TileSchedule schedule, int tile, List<String> nouns) {
+        List<String> merged = schedule.onTileDescribed(tile, nouns);
+        if (merged != null) {
+            Log.d("DESCRIBER_TILES", "Sweep " + schedule.getCompletedSweeps() + " over "
+                    + schedule.getTileCount() + " tiles: " + merged);
+            if (!merged.isEmpty()) accumulateNouns(merged);
+        }
+    }
+
+    /** Copies one tile of the frame into a pooled bitmap of the tile's size. */
+    private Bitmap cropTile(Bitmap frame, Rect bounds) {
+        int width = bounds.width();
+        int height = bounds.height();
+        Bitmap tile = FramePool.getInstance().acquireBitmap(width, height);
+        synchronized (tileLock) {
+            if (tilePixels.length < width * height) {
+                tilePixels = new int[width * height];
             }
+            frame.getPixels(tilePixels, 0, width, bounds.left, bounds.top, width, height);
+            tile.setPixels(tilePixels, 0, width, 0, 0, width, height);
+        }
+        return tile;
+    }
 
-            // Retrieve the cumulative (aggregated) set and log that so the log shows history
-            try {
-                java.util.Set<String> aggregated = IngredientAccumulator.getInstance().getCurrentIngredients();
-                // Preserve insertion order by converting to a list for nicer formatting
-                java.util.List<String> aggList = new java.util.ArrayList<>(aggregated);
-                Log.d("ingredients_nouns", "Nouns: " + aggList.toString());
-            } catch (Exception e) {
-                Log.d("ingredients_nouns", "Nouns: " + String.valueOf(nouns));
+    /**
+     * Frees the request's slot and starts the waiting frame, if any. The waiting frame is looked
+     * up in the cache again first: the description that just finished may cover it.
+     */
+    private void onInferenceFinished(InferenceRequest request) {
+        InferenceRequest next = null;
+        List<String> cached = null;
+        synchronized (inFlightLock) {
+            inFlight.remove(request);
+            if (waiting != null && inFlight.size() < maxInFlight) {
+                next = waiting;
+                waiting = null;
+                if (next.cache != null) cached = next.cache.lookup(next.frameHash, SystemClock.elapsedRealtime());
+                if (cached == null) inFlight.add(next);
             }
+        }
+        if (next == null) return;
+        if (cached != null) {
+            reuseDescription(next.bitmap, next.schedule, next.tile, cached);
+        } else {
+            runInference(next);
+        }
+    }
+
+    /** Sets how many runInference calls may be outstanding at once (default 1). */
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be >= 1");
+        synchronized (inFlightLock) {
+            this.maxInFlight = maxInFlight;
+        }
+    }
 
-            // Notify listener on main thread if present (send only the current step nouns)
-            if (nounsListener != null) {
-                android.os.Handler h = new android.os.Handler(android.os.Looper.getMainLooper());
-                List<String> finalNouns = nouns;
-                h.post(() -> nounsListener.onNouns(finalNouns));
+    public int getInFlightCount() {
+        synchronized (inFlightLock) {
+            return inFlight.size();
+        }
+    }
+
+    /**
+     * Number of frames handed to {@link #prepareAndStartImageDescription} that were released
+     * without a description: replaced by a newer frame while waiting, dropped while the feature
+     * was unavailable, or lost to a failed inference.
+     */
+    public long getDroppedFrameCount() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Forwards nouns to the listener and, unless they come from a tile of {@code schedule},
+     * adds them to the accumulator; tiles are accumulated per sweep in {@link #onTileDescribed}.
+     */
+    private void publishNouns(List<String> nouns, TileSchedule schedule) {
+        if (schedule == null) accumulateNouns(nouns);
+
+        // Notify listener on main thread if present (send only the current step nouns)
+        NounsListener listener = nounsListener;
+        if (listener != null) {
+            mainHandler.post(() -> listener.onNouns(nouns));
+        }
+    }
+
+    /** Adds nouns to the accumulator and logs the running total. */
+    private void accumulateNouns(List<String> nouns) {
+        // Add to app-scoped accumulator (deduplicated, preserved order)
+        try {
+            if (nouns != null && !nouns.isEmpty()) {
+                IngredientAccumulator.getInstance().addIngredientNames(activityContext, nouns);
             }
+        } catch (Exception e) {
+        }
 
-//            imageProxy.close();
-        });
+        // Retrieve the cumulative (aggregated) set and log that so the log shows history
+        try {
+            java.util.Set<String> aggregated = IngredientAccumulator.getInstance().getCurrentIngredients();
+            // Preserve insertion order by converting to a list for nicer formatting
+            java.util.List<String> aggList = new java.util.ArrayList<>(aggregated);
+            Log.d("ingredients_nouns", "Nouns: " + aggList.toString());
+        } catch (Exception e) {
+            Log.d("ingredients_nouns", "Nouns: " + String.valueOf(nouns));
+        }
+    }
+
+    private static boolean succeeded(ListenableFuture<?> future) {
+        try {
+            future.get();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /** POS-based extraction via NLPTagger, with the regex fallback when it finds nothing. */
+    private List<String> extractSentenceNouns(String sentence) {
+        // A segment may hold several sentences; one batch call tags them with a single tagger
+        // and lets each sentence hit the memo on its own
+        List<String> nouns = extractNouns(IncrementalNounExtractor.splitSentences(sentence));
+        // An empty result against the ingredient lexicon means no food was mentioned
+        if ((nouns == null || nouns.isEmpty())
+                && !NLPTagger.get(activityContext).hasIngredientLexicon()) {
+            nouns = fallbackExtractNouns(sentence);
+        }
+        return nouns;
     }
 
     private List<String> extractNouns(String text) {
         // Delegate to NLPTagger for extraction. Return empty list on failure.
         try {
-            com.example.recepiesuggestor.models.NLPTagger tagger = com.example.recepiesuggestor.models.NLPTagger.get(activityContext);
-            // Ensure initialized (NLPTagger.init() is idempotent)
-            try {
-                tagger.init();
-            } catch (Exception ignored) {
-                // init may have already been called or fail; extractNouns will throw if not ready
-            }
-            return tagger.extractNouns(text);
+            // Falls back to heuristics by itself while the POS model is still loading
+            return com.example.recepiesuggestor.models.NLPTagger.get(activityContext).extractNouns(text);
         } catch (Exception e) {
             Log.e("NLP_EXTRACT", "Failed to extract nouns", e);
             return new ArrayList<>();
         }
     }
 
-    // Lightweight fallback extractor: split on non-letters, remove stopwords, dedupe
-    private List<String> fallbackExtractNouns(String text) {
-        List<String> nouns = new ArrayList<>();
-        if (text == null || text.isEmpty()) return nouns;
-        // small stopword set
-        java.util.Set<String> stop = new java.util.HashSet<>(java.util.Arrays.asList(
-                "a", "an", "the", "and", "or", "but", "with", "without", "of", "in", "on", "for",
-                "to", "from", "by", "is", "are", "was", "were", "be", "been", "this", "that", "these",
-                "those", "it", "its", "as", "at", "about", "into", "over", "under", "other", "some", "next"
-        ));
-
-        java.util.LinkedHashSet<String> set = new java.util.LinkedHashSet<>();
-
-        // Common patterns in image descriptions; capture groups that often contain objects
-        String[] patterns = new String[]{
-                "holds? (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
-                "contains? (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
-                "on (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
-                "next to (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
-                "with (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
-                "there (?:is|are) (?:a |an |the )?([\\w\\s-]+?)(?:\\.|,| and |$)",
-                "(?:a |an |the )([\\w\\s-]+?)(?:\\.|,| and |$)"
-        };
-
-        android.util.Log.d("NLP_FALLBACK", "Fallback extractor input: '" + text + "'");
-        for (String pat : patterns) {
-            try {
-                java.util.regex.Pattern p = java.util.regex.Pattern.compile(pat, java.util.regex.Pattern.CASE_INSENSITIVE);
-                java.util.regex.Matcher m = p.matcher(text);
-                while (m.find()) {
-                    String g = m.group(1);
-                    android.util.Log.d("NLP_FALLBACK", "Pattern: '" + pat + "' matched group: '" + g + "'");
-                    if (g == null) continue;
-                    String cleaned = g.trim();
-                    // split on ' and ' to get multiple items inside the group
-                    String[] parts = cleaned.split("\\band\\b|,|;|\\band other\\b");
-                    for (String part : parts) {
-                        String candidate = part.trim().replaceAll("[^A-Za-z0-9\\s-]", "");
-                        if (candidate.isEmpty()) continue;
-                        // take last token as likely noun head
-                        String[] tokens = candidate.split("\\s+");
-                        String head = tokens[tokens.length - 1];
-                        String lc = head.toLowerCase();
-                        if (head.length() > 1 && !stop.contains(lc) && !lc.matches("^[0-9]+$")) {
-                            android.util.Log.d("NLP_FALLBACK", "Adding candidate noun: '" + head + "'");
-                            set.add(head);
-                        }
-                    }
-                }
-            } catch (Exception ignored) {
-            }
-        }
-
-        // As a final fallback, pick words longer than 2 characters that aren't stopwords
-        if (set.isEmpty()) {
-            String[] words = text.split("[^A-Za-z0-9]+");
-            for (String w : words) {
-                if (w == null) continue;
-                String s = w.trim();
-                if (s.length() <= 2) continue;
-                String lc = s.toLowerCase();
-                if (stop.contains(lc)) continue;
-                if (lc.matches("^[0-9]+$")) continue;
-                set.add(s);
-            }
+    private List<String> extractNouns(List<String> sentences) {
+        try {
+            return NLPTagger.get(activityContext).extractNouns(sentences);
+        } catch (Exception e) {
+            Log.e("NLP_EXTRACT", "Failed to extract nouns", e);
+            return new ArrayList<>();
         }
+    }
 
-        nouns.addAll(set);
-        android.util.Log.d("NLP_FALLBACK", "Fallback extractor result: " + nouns.toString());
+    private List<String> fallbackExtractNouns(String text) {
+        List<String> nouns = fallbackExtractor.extract(text);
+        Log.d("NLP_FALLBACK", "Fallback extractor result: " + nouns);
         return nouns;
     }
 
@@ -0,0 +1,106 @@
+package com.example.recepiesuggestor.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Extracts nouns from a description while it streams in. Chunks are buffered and only
+ * complete sentences are handed to the sentence extractor, so a word split across two chunks
+ * never becomes a bogus noun and no text is tagged twice. Each call returns only the nouns
+ * not seen earlier in the same description.
+ *
+ * Use one instance per description.
+ */
+public class IncrementalNounExtractor {
+
+    public interface SentenceExtractor {
+        List<String> extract(String sentence);
+    }
+
+    private final SentenceExtractor sentenceExtractor;
+    private final StringBuilder pending = new StringBuilder();
+    private final Set<String> seen = new LinkedHashSet<>();
+    private int sentences;
+
+    public IncrementalNounExtractor(SentenceExtractor sentenceExtractor) {
+        this.sentenceExtractor = sentenceExtractor;
+    }
+
+    /** Adds a streamed chunk; returns the new nouns of any sentences it completed. */
+    public synchronized List<String> append(String chunk) {
+        if (chunk == null || chunk.isEmpty()) return Collections.emptyList();
+        pending.append(chunk);
+        int end = lastSentenceEnd(pending);
+        if (end < 0) return Collections.emptyList();
+
+        String complete = pending.substring(0, end);
+        pending.delete(0, end);
+        return extract(complete);
+    }
+
+    /** Processes whatever is left once the description is complete. */
+    public synchronized List<String> finish() {
+        String rest = pending.toString();
+        pending.setLength(0);
+        return extract(rest);
+    }
+
+    /** All nouns emitted so far, in first-seen order. */
+    public synchronized List<String> getNouns() {
+        return new ArrayList<>(seen);
+    }
+
+    /** Number of text segments handed to the sentence extractor. */
+    public synchronized int getExtractedSentenceCount() {
+        return sentences;
+    }
+
+    private List<String> extract(String text) {
+        if (text.trim().isEmpty()) return Collections.emptyList();
+        sentences++;
+        List<String> nouns = sentenceExtractor.extract(text);
+        if (nouns == null || nouns.isEmpty()) return Collections.emptyList();
+        List<String> delta = new ArrayList<>();
+        for (String noun : nouns) {
+            if (seen.add(noun)) delta.add(noun);
+        }
+        return delta;
+    }
+
+    /**
+     * Splits text into trimmed sentences at terminators followed by whitespace, the same rule
+     * {@link #lastSentenceEnd} uses. Blank pieces are dropped.
+     */
+    public static List<String> splitSentences(CharSequence text) {
+        List<String> sentences = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean end = i + 1 == text.length()
+                    || ((c == '.' || c == '!' || c == '?' || c == '\n') && Character.isWhitespace(text.charAt(i + 1)));
+            if (end) {
+                String sentence = text.subSequence(start, i + 1).toString().trim();
+                if (!sentence.isEmpty()) sentences.add(sentence);
+                start = i + 1;
+            }
+        }
+        return sentences;
+    }
+
+    /**
+     * Index just past the last sentence terminator that is followed by whitespace, or -1. A
+     * terminator at the very end of the buffer is not trusted yet ("3." may continue as "3.5").
+     */
+    static int lastSentenceEnd(CharSequence text) {
+        for (int i = text.length() - 2; i >= 0; i--) {
+            char c = text.charAt(i);
+            if ((c == '.' || c == '!' || c == '?' || c == '\n') && Character.isWhitespace(text.charAt(i + 1))) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.recepiesuggestor.models;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Known ingredient names, single- and multi-word, compiled into a word-level trie. Matching
+ * walks the token array once, taking the longest entry that starts at each token, so
+ * "peanut butter" wins over "butter" and "table" is never reported. Plural tokens are mapped
+ * to their singular entry ("tomatoes" -> "tomato", "loaves" -> "loaf").
+ *
+ * Lexicon lines hold one lower-case singular name each; "alias=name" maps a synonym onto an
+ * entry, and lines starting with '#' are comments. Immutable and thread-safe once built.
+ */
+public final class IngredientLexicon {
+
+    /** A lexicon entry found at tokens [start, end). */
+    public static final class Match {
+        public final int start;
+        public final int end;
+        public final String ingredient;
+
+        Match(int start, int end, String ingredient) {
+            this.start = start;
+            this.end = end;
+            this.ingredient = ingredient;
+        }
+
+        @Override
+        public String toString() {
+            return ingredient + "[" + start + "," + end + ")";
+        }
+    }
+
+    private static final int ROOT = 0;
+
+    // Word vocabulary of all entries; trie edges are keyed by (node, word id)
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    private long[] edgeKeys = new long[64];
+    private int[] edgeTargets = new int[64];
+    private int edgeCount;
+    private int nodeCount = 1;
+    // Ingredient name reached at each node, or null
+    private String[] terminals = new String[16];
+    private int entryCount;
+
+    public IngredientLexicon(Iterable<String> lines) {
+        Arrays.fill(edgeKeys, -1L);
+        for (String line : lines) addLine(line);
+    }
+
+    /** Reads a lexicon in the line format described above (UTF-8). */
+    public static IngredientLexicon load(InputStream in) throws IOException {
+        List<String> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+        String line;
+        while ((line = reader.readLine()) != null) lines.add(line);
+        return new IngredientLexicon(lines);
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Returns the longest non-overlapping entries in token order. Tokens are compared case
+     * insensitively.
+     */
+    public List<Match> match(String[] tokens) {
+        List<Match> matches = new ArrayList<>();
+        int i = 0;
+        while (i < tokens.length) {
+            int node = ROOT;
+            int bestEnd = -1;
+            String best = null;
+            for (int j = i; j < tokens.length; j++) {
+                int word = wordId(tokens[j]);
+                if (word < 0) break;
+                node = child(node, word);
+                if (node < 0) break;
+                if (terminals[node] != null) {
+                    bestEnd = j + 1;
+                    best = terminals[node];
+                }
+            }
+            if (best != null) {
+                matches.add(new Match(i, bestEnd, best));
+                i = bestEnd;
+            } else {
+                i++;
+            }
+        }
+        return matches;
+    }
+
+    /** The entry a whole phrase names ("Olive  Oil" -> "olive oil"), or null. */
+    public String lookup(String phrase) {
+        String[] tokens = phrase.trim().split("\\s+");
+        List<Match> matches = match(tokens);
+        if (matches.size() == 1 && matches.get(0).start == 0 && matches.get(0).end == tokens.length) {
+            return matches.get(0).ingredient;
+        }
+        return null;
+    }
+
+    private void addLine(String line) {
+        String entry = line.trim().toLowerCase(Locale.ROOT);
+        if (entry.isEmpty() || entry.startsWith("#")) return;
+        String name = entry;
+        int eq = entry.indexOf('=');
+        if (eq >= 0) {
+            name = entry.substring(eq + 1).trim();
+            entry = entry.substring(0, eq).trim();
+            if (entry.isEmpty() || name.isEmpty()) return;
+        }
+        name = name.replaceAll("\\s+", " ");
+
+        int node = ROOT;
+        for (String word : entry.split("\\s+")) {
+            Integer id = wordIds.get(word);
+            if (id == null) {
+                id = wordIds.size();
+                wordIds.put(word, id);
+            }
+            int next = child(node, id);
+            if (next < 0) {
+                next = nodeCount++;
+                if (nodeCount > terminals.length) terminals = Arrays.copyOf(terminals, terminals.length * 2);
+                putEdge(node, id, next);
+            }
+            node = next;
+        }
+        if (terminals[node] == null) entryCount++;
+        terminals[node] = name;
+    }
+
+    /** Word id of a token, trying singular forms of plurals; -1 if no entry uses the word. */
+    private int wordId(String token) {
+        String word = token.toLowerCase(Locale.ROOT);
+        Integer id = wordIds.get(word);
+        if (id != null) return id;
+        int n = word.length();
+        if (n < 3 || word.charAt(n - 1) != 's') return -1;
+        String stem = word.substring(0, n - 1);
+        if (word.endsWith("ies")) {
+            id = wordIds.get(word.substring(0, n - 3) + "y");         // berries
+        } else if (word.endsWith("ves")) {
+            id = wordIds.get(word.substring(0, n - 3) + "f");         // loaves
+        } else if (word.endsWith("es")) {
+            id = wordIds.get(word.substring(0, n - 2));               // tomatoes, peaches
+        }
+        if (id == null) id = wordIds.get(stem);                       // eggs, olives, cookies
+        return id != null ? id : -1;
+    }
+
+    // Open-addressing map from (node, word) to child node
+
+    private int child(int node, int word) {
+        long key = ((long) node << 32) | word;
+        int mask = edgeKeys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (edgeKeys[slot] == key) return edgeTargets[slot];
+            if (edgeKeys[slot] == -1L) return -1;
+        }
+    }
+
+    private void putEdge(int node, int word, int target) {
+        if ((edgeCount + 1) * 2 > edgeKeys.length) growEdges();
+        long key = ((long) node << 32) | word;
+        int mask = edgeKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (edgeKeys[slot] != -1L) slot = (slot + 1) & mask;
+        edgeKeys[slot] = key;
+        edgeTargets[slot] = target;
+        edgeCount++;
+    }
+
+    private void growEdges() {
+        long[] oldKeys = edgeKeys;
+        int[] oldTargets = edgeTargets;
+        edgeKeys = new long[oldKeys.length * 2];
+        edgeTargets = new int[oldKeys.length * 2];
+        Arrays.fill(edgeKeys, -1L);
+        edgeCount = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != -1L) {
+                putEdge((int) (oldKeys[i] >>> 32), (int) oldKeys[i], oldTargets[i]);
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
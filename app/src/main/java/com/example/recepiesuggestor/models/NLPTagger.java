@@ -4,14 +4,22 @@ import android.content.Context;
 
 import androidx.annotation.NonNull;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import opennlp.tools.postag.POSModel;
 import opennlp.tools.postag.POSTaggerME;
@@ -23,13 +31,32 @@ public final class NLPTagger {
 
     private final Context appContext;
     private final ExecutorService bg;
-    private SimpleTokenizer tokenizer;
-    private POSTaggerME posTagger;
-    private final Object posLock = new Object();
+    private volatile SimpleTokenizer tokenizer;
+    // POSTaggerME is not thread-safe; callers borrow one from the pool, all sharing the model
+    private volatile POSModel posModel;
+    private volatile TaggerPool<POSTaggerME> posTaggers;
+    private Future<Boolean> loading;
+    // Asset the model came from; set while a compact copy still has to be written
+    private volatile String pendingCompactSource;
+    // Repeated describer sentences skip tokenization and tagging
+    private volatile SentenceNounCache sentenceCache = new SentenceNounCache();
+    // Known ingredients; when present, only lexicon matches are reported
+    private volatile IngredientLexicon ingredientLexicon;
 
     /** Change this if you use a different filename. */
     // Try perceptron first (often better), then maxent as fallback. Both are in assets.
     private static final String[] POS_MODEL_ASSET_PATHS = {"en-pos-perceptron.bin", "en-pos-maxent.bin"};
+    // Flat copy of the asset model written on first run; see CompactPosModel
+    private static final String COMPACT_MODEL_FILE = "pos-model.cpos";
+    private static final String LEXICON_ASSET_PATH = "ingredient_lexicon.txt";
+
+    // Tagged once after loading so the first real description doesn't pay for JIT and class init
+    private static final String[] WARM_UP_SENTENCES = {
+        "A wooden cutting board holds a red bell pepper and two tomatoes.",
+        "The refrigerator shelves contain milk, eggs, butter and cheese.",
+        "A bowl of pasta sits on the counter next to a jar of sauce."
+    };
+    private static final int WARM_UP_ROUNDS = 5;
 
     // Lightweight stopwords for fallback heuristic
     private static final Set<String> STOPWORDS = new java.util.HashSet<>(java.util.Arrays.asList(
@@ -54,46 +81,256 @@ public final class NLPTagger {
         return INSTANCE;
     }
 
-    /** Call once (e.g., in Application.onCreate or first use). */
+    /**
+     * Loads the POS model on the background executor and warms up the tagger. Safe to call
+     * repeatedly; every call returns the same future, which yields whether a model was loaded.
+     * Until then {@link #extractNouns} answers with the heuristic extractor.
+     */
+    public synchronized Future<Boolean> initAsync() {
+        if (loading == null) {
+            loading = bg.submit(() -> {
+                long start = android.os.SystemClock.elapsedRealtime();
+                init();
+                long loadedAt = android.os.SystemClock.elapsedRealtime();
+                if (posTaggers == null) return false;
+                warmUp();
+                android.util.Log.d("NLP_INIT", "POS model ready: load " + (loadedAt - start)
+                        + " ms, warm-up " + (android.os.SystemClock.elapsedRealtime() - loadedAt) + " ms");
+                writeCompactModel();
+                return true;
+            });
+        }
+        return loading;
+    }
+
+    /** True once the POS model is loaded and extraction uses the tagger. */
+    public boolean isReady() {
+        return tokenizer != null && posTaggers != null;
+    }
+
+    private void warmUp() {
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            for (String sentence : WARM_UP_SENTENCES) {
+                // Bypass the sentence memo, or only the first round would reach the tagger
+                tagNouns(sentence, null);
+            }
+        }
+    }
+
+    /** Loads the model synchronously; prefer {@link #initAsync()} on the main thread. */
     public void init() throws IOException {
-        if (tokenizer != null && posTagger != null) return;
+        // Called before every extraction; only take the lock until a model is loaded
+        if (tokenizer != null && posTaggers != null) return;
+        synchronized (this) {
+            load();
+        }
+    }
+
+    private void load() {
+        if (tokenizer != null && posTaggers != null) return;
 
         tokenizer = SimpleTokenizer.INSTANCE;
-        // Try multiple model files present in assets
-        POSModel posModel = null;
+        if (ingredientLexicon == null) ingredientLexicon = loadLexicon();
+        // Try multiple model files present in assets, preferring a compact copy of the same asset
+        POSModel loaded = null;
         for (String p : POS_MODEL_ASSET_PATHS) {
+            String source = assetSource(p);
+            if (source == null) continue;
+            long start = android.os.SystemClock.elapsedRealtime();
+            loaded = readCompactModel(source);
+            if (loaded != null) {
+                android.util.Log.d("NLP_INIT", "Read compact POS model in "
+                        + (android.os.SystemClock.elapsedRealtime() - start) + " ms");
+                break;
+            }
             try (InputStream in = appContext.getAssets().open(p)) {
-                posModel = new POSModel(in);
+                loaded = new POSModel(in);
+                pendingCompactSource = source;
+                android.util.Log.d("NLP_INIT", "Parsed POS model archive " + p + " in "
+                        + (android.os.SystemClock.elapsedRealtime() - start) + " ms");
                 break;
             } catch (IOException ignored) {
                 // try next
             }
         }
-        if (posModel != null) {
-            posTagger = new POSTaggerME(posModel);
-            android.util.Log.d("NLP_INIT", "Loaded POS model and initialized POSTaggerME");
+        if (loaded != null) {
+            final POSModel model = loaded;
+            posModel = model;
+            posTaggers = new TaggerPool<>(() -> new POSTaggerME(model),
+                    Runtime.getRuntime().availableProcessors());
+            android.util.Log.d("NLP_INIT", "Loaded POS model and initialized POSTaggerME pool");
         } else {
             android.util.Log.d("NLP_INIT", "No POS model found in assets: tried " + java.util.Arrays.toString(POS_MODEL_ASSET_PATHS));
         }
     }
 
+    private IngredientLexicon loadLexicon() {
+        try (InputStream in = appContext.getAssets().open(LEXICON_ASSET_PATH)) {
+            IngredientLexicon lexicon = IngredientLexicon.load(in);
+            android.util.Log.d("NLP_INIT", "Loaded ingredient lexicon with " + lexicon.size() + " entries");
+            return lexicon;
+        } catch (IOException e) {
+            android.util.Log.d("NLP_INIT", "No ingredient lexicon in assets; reporting every noun");
+            return null;
+        }
+    }
+
+    /** Identifies an asset model by name and content checksum, or null if it isn't bundled. */
+    private String assetSource(String path) {
+        try (InputStream in = appContext.getAssets().open(path)) {
+            return CompactPosModel.sourceOf(path, in);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Maps the compact model file if it was made from {@code source}; null if missing or stale. */
+    private POSModel readCompactModel(String source) {
+        File file = new File(appContext.getFilesDir(), COMPACT_MODEL_FILE);
+        if (!file.isFile()) return null;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!source.equals(CompactPosModel.readSource(buffer))) return null;
+            return CompactPosModel.read(buffer);
+        } catch (IOException e) {
+            android.util.Log.w("NLP_INIT", "Discarding unreadable compact POS model", e);
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Writes a compact copy of the model parsed from assets so the next cold start can map it.
+     * The copy is read back and must tag the warm-up sentences identically before it is kept.
+     */
+    private void writeCompactModel() {
+        String source = pendingCompactSource;
+        POSModel model = posModel;
+        if (source == null || model == null) return;
+        pendingCompactSource = null;
+        if (!CompactPosModel.isSupported(model)) {
+            android.util.Log.d("NLP_INIT", "POS model type has no compact form; keeping the archive loader");
+            return;
+        }
+
+        File file = new File(appContext.getFilesDir(), COMPACT_MODEL_FILE);
+        File tmp = new File(appContext.getFilesDir(), COMPACT_MODEL_FILE + ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp))) {
+                CompactPosModel.write(model, source, out);
+            }
+            POSModel copy;
+            try (RandomAccessFile raf = new RandomAccessFile(tmp, "r");
+                 FileChannel channel = raf.getChannel()) {
+                copy = CompactPosModel.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+            String[][] sentences = new String[WARM_UP_SENTENCES.length][];
+            for (int i = 0; i < sentences.length; i++) sentences[i] = tokenizer.tokenize(WARM_UP_SENTENCES[i]);
+            if (!CompactPosModel.tagsAgree(model, copy, sentences)) {
+                android.util.Log.w("NLP_INIT", "Compact POS model tags differently; keeping the archive loader");
+                tmp.delete();
+                return;
+            }
+            if (!tmp.renameTo(file)) throw new IOException("Could not rename " + tmp);
+            android.util.Log.d("NLP_INIT", "Wrote compact POS model (" + file.length() + " bytes)");
+        } catch (IOException | RuntimeException e) {
+            android.util.Log.w("NLP_INIT", "Failed to write compact POS model", e);
+            tmp.delete();
+        }
+    }
+
     /** Synchronous noun extraction (NN, NNS, NNP, NNPS). */
     @NonNull
     public List<String> extractNouns(@NonNull String text) {
         if (text.isEmpty()) return new ArrayList<>();
-        if (tokenizer == null || posTagger == null) {
-            throw new IllegalStateException("NLP not initialized. Call NLPTagger.init() first.");
+        if (!isReady()) {
+            // Model still loading (or missing): answer with the heuristic instead of failing
+            initAsync();
+            Set<String> nouns = new LinkedHashSet<>();
+            addUntaggedNouns(text, nouns);
+            return new ArrayList<>(nouns);
+        }
+
+        SentenceNounCache cache = sentenceCache;
+        if (cache == null) return tagNouns(text, null);
+        String key = SentenceNounCache.normalize(text);
+        List<String> cached = cache.get(key);
+        if (cached != null) return cached;
+        List<String> nouns = tagNouns(text, null);
+        cache.put(key, nouns);
+        return nouns;
+    }
+
+    /**
+     * Batch form of {@link #extractNouns(String)} for descriptions that arrive together, such as
+     * the sentences of one describer segment or the tiles of one sweep. Returns the nouns of all
+     * texts merged in first-seen order without duplicates. One pooled tagger serves the whole
+     * batch, and only texts missing from the sentence memo are tagged.
+     */
+    @NonNull
+    public List<String> extractNouns(@NonNull List<String> texts) {
+        Set<String> merged = new LinkedHashSet<>();
+        if (!isReady()) {
+            initAsync();
+            for (String text : texts) {
+                if (text != null && !text.isEmpty()) addUntaggedNouns(text, merged);
+            }
+            return new ArrayList<>(merged);
         }
 
+        SentenceNounCache cache = sentenceCache;
+        TaggerPool<POSTaggerME> pool = posTaggers;
+        POSTaggerME tagger = null;
+        try {
+            for (String text : texts) {
+                if (text == null || text.isEmpty()) continue;
+                String key = cache == null ? null : SentenceNounCache.normalize(text);
+                List<String> nouns = key == null ? null : cache.get(key);
+                if (nouns == null) {
+                    // Borrowed lazily: a batch of memo hits never touches the pool
+                    if (tagger == null) tagger = pool.acquire();
+                    nouns = tagNouns(text, tagger);
+                    if (key != null) cache.put(key, nouns);
+                }
+                merged.addAll(nouns);
+            }
+        } finally {
+            if (tagger != null) pool.release(tagger);
+        }
+        return new ArrayList<>(merged);
+    }
+
+    /** Extraction used until the model is loaded: lexicon matches, or the split heuristic. */
+    private void addUntaggedNouns(String text, Set<String> nouns) {
+        IngredientLexicon lexicon = ingredientLexicon;
+        if (lexicon != null) {
+            addLexiconNouns(lexicon, SimpleTokenizer.INSTANCE.tokenize(text), null, nouns);
+        } else {
+            addHeuristicNouns(text, nouns);
+        }
+    }
+
+    /** Replaces the sentence memo (e.g. with another capacity); null disables it. */
+    public void setSentenceCache(SentenceNounCache cache) {
+        this.sentenceCache = cache;
+    }
+
+    public SentenceNounCache getSentenceCache() {
+        return sentenceCache;
+    }
+
+    /** Tags one text; {@code tagger} is a tagger the caller already holds, or null to borrow one. */
+    private List<String> tagNouns(String text, POSTaggerME tagger) {
+        IngredientLexicon lexicon = ingredientLexicon;
+        if (lexicon != null) return tagIngredients(lexicon, text, tagger);
+
         // Try POS tagging first
         Set<String> nouns = new LinkedHashSet<>();
         try {
-            if (posTagger != null) {
+            if (posTaggers != null) {
                 String[] tokens = tokenizer.tokenize(text);
-                String[] tags;
-                synchronized (posLock) {
-                    tags = posTagger.tag(tokens);
-                }
+                String[] tags = tag(tokens, tagger);
                 for (int i = 0; i < tokens.length; i++) {
                     String tag = tags[i];
                     if (tag != null && (tag.equals("NN") || tag.equals("NNS") || tag.equals("NNP") || tag.equals("NNPS"))) {
@@ -114,12 +351,9 @@ public final class NLPTagger {
             }
             String prefixed = "The image contains " + cleaned;
             try {
-                if (posTagger != null) {
+                if (posTaggers != null) {
                     String[] tokens = tokenizer.tokenize(prefixed);
-                    String[] tags;
-                    synchronized (posLock) {
-                        tags = posTagger.tag(tokens);
-                    }
+                    String[] tags = tag(tokens, tagger);
                     for (int i = 0; i < tokens.length; i++) {
                         String tag = tags[i];
                         if (tag != null && (tag.equals("NN") || tag.equals("NNS") || tag.equals("NNP") || tag.equals("NNPS"))) {
@@ -132,25 +366,81 @@ public final class NLPTagger {
 
         // Final heuristic fallback: split on conjunctions and separators and filter stopwords
         if (nouns.isEmpty()) {
-            // Split on common conjunctions/separators (word-boundaries for 'and/on/in/with'), commas, semicolons,
-            // forward slash, or backslash. Use proper escaping for Java string literals.
-            String[] parts = text.split("\\band\\b|,|;|\\bon\\b|\\bin\\b|\\bwith\\b|/|\\\\");
-            for (String p : parts) {
-                String w = p.trim();
-                if (w.isEmpty()) continue;
-                // take last word of the part (likely noun)
-                String[] words = w.split("\\s+");
-                String candidate = words[words.length - 1].replaceAll("[^a-zA-Z0-9]", "");
-                String lc = candidate.toLowerCase();
-                if (candidate.length() > 1 && !STOPWORDS.contains(lc) && lc.matches(".*[a-zA-Z].*")) {
-                    nouns.add(candidate);
-                }
-            }
+            addHeuristicNouns(text, nouns);
         }
 
         return new ArrayList<>(nouns);
     }
 
+    /**
+     * Lexicon-based extraction: multi-word ingredients come back whole ("peanut butter") and in
+     * their singular form, and words the lexicon doesn't know are dropped.
+     */
+    private List<String> tagIngredients(IngredientLexicon lexicon, String text, POSTaggerME tagger) {
+        Set<String> nouns = new LinkedHashSet<>();
+        String[] tokens = tokenizer.tokenize(text);
+        String[] tags = null;
+        try {
+            if (posTaggers != null) tags = tag(tokens, tagger);
+        } catch (Exception e) {
+            // ignore and match without the noun filter
+        }
+        addLexiconNouns(lexicon, tokens, tags, nouns);
+        return new ArrayList<>(nouns);
+    }
+
+    /**
+     * Adds lexicon matches over {@code tokens}. With {@code tags}, a match only counts when its
+     * last word was tagged as a noun, so "a tomato red bowl" doesn't report a tomato.
+     */
+    private static void addLexiconNouns(IngredientLexicon lexicon, String[] tokens, String[] tags, Set<String> nouns) {
+        for (IngredientLexicon.Match match : lexicon.match(tokens)) {
+            String tag = tags == null ? "NN" : tags[match.end - 1];
+            if (tag != null && (tag.equals("NN") || tag.equals("NNS") || tag.equals("NNP") || tag.equals("NNPS"))) {
+                nouns.add(match.ingredient);
+            }
+        }
+    }
+
+    private static void addHeuristicNouns(String text, Set<String> nouns) {
+        // Split on common conjunctions/separators (word-boundaries for 'and/on/in/with'), commas, semicolons,
+        // forward slash, or backslash. Use proper escaping for Java string literals.
+        String[] parts = text.split("\\band\\b|,|;|\\bon\\b|\\bin\\b|\\bwith\\b|/|\\\\");
+        for (String p : parts) {
+            String w = p.trim();
+            if (w.isEmpty()) continue;
+            // take last word of the part (likely noun)
+            String[] words = w.split("\\s+");
+            String candidate = words[words.length - 1].replaceAll("[^a-zA-Z0-9]", "");
+            String lc = candidate.toLowerCase();
+            if (candidate.length() > 1 && !STOPWORDS.contains(lc) && lc.matches(".*[a-zA-Z].*")) {
+                nouns.add(candidate);
+            }
+        }
+    }
+
+    /** Tags tokens with a pooled POSTaggerME, so concurrent callers don't serialize. */
+    private String[] tag(String[] tokens, POSTaggerME held) {
+        if (held != null) return held.tag(tokens);
+        TaggerPool<POSTaggerME> pool = posTaggers;
+        POSTaggerME tagger = pool.acquire();
+        try {
+            return tagger.tag(tokens);
+        } finally {
+            pool.release(tagger);
+        }
+    }
+
+    /** True once a POS model has been loaded. */
+    public boolean hasPosModel() {
+        return posModel != null;
+    }
+
+    /** True once the ingredient lexicon has been loaded; extraction then reports ingredients only. */
+    public boolean hasIngredientLexicon() {
+        return ingredientLexicon != null;
+    }
+
     /** Example async helper if you prefer off the UI thread. */
     public interface NounsCallback {
         void onNounsReady(@NonNull List<String> nouns);
@@ -160,7 +450,7 @@ public final class NLPTagger {
     public void extractNounsAsync(@NonNull String text, @NonNull NounsCallback cb) {
         bg.execute(() -> {
             try {
-                if (tokenizer == null || posTagger == null) init();
+                if (!isReady()) init();
                 List<String> nouns = extractNouns(text);
                 cb.onNounsReady(nouns);
             } catch (Exception e) {
@@ -168,4 +458,17 @@ public final class NLPTagger {
             }
         });
     }
+
+    /** Extracts a whole batch in one executor task; see {@link #extractNouns(List)}. */
+    public void extractNounsAsync(@NonNull List<String> texts, @NonNull NounsCallback cb) {
+        final List<String> batch = new ArrayList<>(texts);
+        bg.execute(() -> {
+            try {
+                if (!isReady()) init();
+                cb.onNounsReady(extractNouns(batch));
+            } catch (Exception e) {
+                cb.onError(e);
+            }
+        });
+    }
 }
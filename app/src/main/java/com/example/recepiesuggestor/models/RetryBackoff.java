@@ -0,0 +1,50 @@
+package com.example.recepiesuggestor.models;
+
+/**
+ * Exponential backoff between attempts of an operation that can fail for a while (a feature
+ * status check, a model download): after the n-th consecutive failure the next attempt is due
+ * {@code initialDelayMs * 2^(n-1)} later, capped at {@code maxDelayMs}. Not thread-safe.
+ */
+final class RetryBackoff {
+
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+
+    private int failures;
+    private long retryAtMs;
+
+    RetryBackoff(long initialDelayMs, long maxDelayMs) {
+        if (initialDelayMs <= 0 || maxDelayMs < initialDelayMs) {
+            throw new IllegalArgumentException("need 0 < initialDelayMs <= maxDelayMs");
+        }
+        this.initialDelayMs = initialDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /** Records a failure at {@code nowMs} and schedules the next attempt. */
+    void onFailure(long nowMs) {
+        failures++;
+        long delay = initialDelayMs;
+        for (int i = 1; i < failures && delay < maxDelayMs; i++) delay *= 2;
+        retryAtMs = nowMs + Math.min(delay, maxDelayMs);
+    }
+
+    /** Forgets earlier failures once an attempt succeeds. */
+    void onSuccess() {
+        failures = 0;
+        retryAtMs = 0;
+    }
+
+    /** Whether another attempt may start at {@code nowMs}. */
+    boolean isDue(long nowMs) {
+        return nowMs >= retryAtMs;
+    }
+
+    int getFailureCount() {
+        return failures;
+    }
+
+    long getRetryAt() {
+        return retryAtMs;
+    }
+}
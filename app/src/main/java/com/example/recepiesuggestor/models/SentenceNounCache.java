@@ -0,0 +1,97 @@
+package com.example.recepiesuggestor.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bounded LRU memo from a normalized sentence to the nouns extracted from it. The describer
+ * repeats itself a lot for a steady scene, and a hit skips tokenization and tagging entirely.
+ */
+public class SentenceNounCache {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    private final LinkedHashMap<String, List<String>> entries;
+
+    private long hits;
+    private long misses;
+
+    public SentenceNounCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SentenceNounCache(final int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /** Returns a copy of the cached nouns for a normalized key, or null on a miss. */
+    public synchronized List<String> get(String key) {
+        List<String> nouns = entries.get(key);
+        if (nouns == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return new ArrayList<>(nouns);
+    }
+
+    public synchronized void put(String key, List<String> nouns) {
+        entries.put(key, Collections.unmodifiableList(new ArrayList<>(nouns)));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /** Cache key for a sentence: trimmed, lower case, runs of whitespace collapsed to one space. */
+    public static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            sb.append(c);
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
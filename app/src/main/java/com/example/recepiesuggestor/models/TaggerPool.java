@@ -0,0 +1,57 @@
+package com.example.recepiesuggestor.models;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free pool of non-thread-safe tagger instances that share one loaded model. A caller
+ * borrows an idle instance (or creates one when all are busy) and hands it back afterwards,
+ * so concurrent callers tag in parallel instead of queuing on a single instance. At most
+ * {@code maxIdle} instances are retained.
+ */
+final class TaggerPool<T> {
+
+    interface Factory<T> {
+        T create();
+    }
+
+    private final Factory<T> factory;
+    private final int maxIdle;
+    private final ConcurrentLinkedQueue<T> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+
+    TaggerPool(Factory<T> factory, int maxIdle) {
+        if (maxIdle < 1) throw new IllegalArgumentException("maxIdle must be >= 1");
+        this.factory = factory;
+        this.maxIdle = maxIdle;
+    }
+
+    T acquire() {
+        T instance = idle.poll();
+        if (instance != null) {
+            idleCount.decrementAndGet();
+            return instance;
+        }
+        created.incrementAndGet();
+        return factory.create();
+    }
+
+    void release(T instance) {
+        if (instance == null) return;
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(instance);
+        } else {
+            // Enough spare instances already; let this one be collected
+            idleCount.decrementAndGet();
+        }
+    }
+
+    int getCreatedCount() {
+        return created.get();
+    }
+
+    int getIdleCount() {
+        return idleCount.get();
+    }
+}
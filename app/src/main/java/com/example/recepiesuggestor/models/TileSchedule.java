@@ -0,0 +1,90 @@
+package com.example.recepiesuggestor.models;
+
+import android.graphics.Rect;
+
+import com.example.recepiesuggestor.utils.FramePreprocessor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Round-robin schedule for describing a frame as a grid of overlapping tiles, one tile per
+ * frame, so a crowded scene is covered at the cost of a single inference per frame. Nouns
+ * reported for each tile are merged until every tile has been described once (a sweep); the
+ * describer accumulates each sweep's merged nouns as one sighting.
+ */
+public class TileSchedule {
+
+    private final int columns;
+    private final int rows;
+    private final float overlap;
+
+    private int cursor;
+    private List<Rect> tiles;
+    private int tilesWidth;
+    private int tilesHeight;
+
+    private final boolean[] reported;
+    private int reportedCount;
+    private final LinkedHashSet<String> sweepNouns = new LinkedHashSet<>();
+    private long completedSweeps;
+
+    /**
+     * @param overlap Fraction of a tile shared with each neighbour, in [0, 1); overlapping
+     *                tiles keep items on a tile border whole in at least one crop.
+     */
+    public TileSchedule(int columns, int rows, float overlap) {
+        if (columns < 1 || rows < 1) throw new IllegalArgumentException("grid must be at least 1x1");
+        if (overlap < 0f || overlap >= 1f) throw new IllegalArgumentException("overlap must be in [0, 1)");
+        this.columns = columns;
+        this.rows = rows;
+        this.overlap = overlap;
+        this.reported = new boolean[columns * rows];
+    }
+
+    public int getTileCount() {
+        return columns * rows;
+    }
+
+    /** Index of the tile to describe next; advances the round robin. */
+    public synchronized int nextTile() {
+        int tile = cursor;
+        cursor = (cursor + 1) % reported.length;
+        return tile;
+    }
+
+    /** Bounds of a tile within a frame of the given size. */
+    public synchronized Rect tileBounds(int tile, int width, int height) {
+        if (tiles == null || tilesWidth != width || tilesHeight != height) {
+            tiles = FramePreprocessor.tiles(width, height, columns, rows, overlap);
+            tilesWidth = width;
+            tilesHeight = height;
+        }
+        return tiles.get(tile);
+    }
+
+    /**
+     * Records the nouns found in one tile (empty if its description failed). Returns the
+     * merged nouns of all tiles once this completes a sweep, otherwise null.
+     */
+    public synchronized List<String> onTileDescribed(int tile, List<String> nouns) {
+        if (nouns != null) sweepNouns.addAll(nouns);
+        if (!reported[tile]) {
+            reported[tile] = true;
+            reportedCount++;
+        }
+        if (reportedCount < reported.length) return null;
+
+        List<String> merged = new ArrayList<>(sweepNouns);
+        sweepNouns.clear();
+        java.util.Arrays.fill(reported, false);
+        reportedCount = 0;
+        completedSweeps++;
+        return merged;
+    }
+
+    public synchronized long getCompletedSweeps() {
+        return completedSweeps;
+    }
+}
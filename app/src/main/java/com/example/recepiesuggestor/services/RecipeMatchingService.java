@@ -4,6 +4,8 @@ import android.content.Context;
 import android.util.Log;
 import com.example.recepiesuggestor.Recipe;
 import com.example.recepiesuggestor.data.IngredientAccumulator;
+import com.example.recepiesuggestor.data.RecipeDatabase;
+import com.example.recepiesuggestor.data.RecipeIndex;
 import com.example.recepiesuggestor.utils.RecipeParser;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,6 +17,9 @@ public class RecipeMatchingService implements GeminiApiService.RecipeGenerationC
         void onRecipesUpdated(List<Recipe> recipes);
     }
 
+    // Local suggestions shown while (or instead of) waiting for Gemini
+    private static final int LOCAL_RESULTS = 5;
+
     private static RecipeMatchingService instance;
     private RecipeUpdateListener listener;
     private Context context;
@@ -33,6 +38,9 @@ public class RecipeMatchingService implements GeminiApiService.RecipeGenerationC
     public void initialize(Context context) {
         this.context = context.getApplicationContext();
         this.geminiService = GeminiApiService.getInstance(context);
+        // Copying the catalog out of the APK and indexing it take a while; keep both off the UI thread
+        final Context app = this.context;
+        new Thread(() -> RecipeDatabase.loadCatalog(app), "recipe-catalog").start();
     }
 
     public void setRecipeUpdateListener(RecipeUpdateListener listener) {
@@ -61,6 +69,12 @@ public class RecipeMatchingService implements GeminiApiService.RecipeGenerationC
         if (forceUpdate) {
             lastIngredients = new ArrayList<>(ingredientList);
 
+            List<Recipe> local = localRecipes(ingredientList);
+            if (!local.isEmpty() && listener != null) {
+                Log.d("RECIPE_MATCHING", "Showing " + local.size() + " local recipes until Gemini answers");
+                listener.onRecipesUpdated(local);
+            }
+
             if (geminiService != null) {
                 Log.d("RECIPE_MATCHING", "Calling Gemini API (forced by voice command)");
                 geminiService.generateRecipes(ingredientList, this);
@@ -70,6 +84,19 @@ public class RecipeMatchingService implements GeminiApiService.RecipeGenerationC
         }
     }
 
+    /** Best partial matches from the bundled recipes, with missing items noted in the description. */
+    private static List<Recipe> localRecipes(List<String> ingredients) {
+        List<Recipe> recipes = new ArrayList<>();
+        for (RecipeIndex.RankedRecipe ranked : RecipeDatabase.getRankedRecipes(ingredients, LOCAL_RESULTS)) {
+            Recipe recipe = ranked.recipe;
+            String description = ranked.isComplete() ? recipe.getDescription()
+                    : recipe.getDescription() + " (missing: " + android.text.TextUtils.join(", ", ranked.missing) + ")";
+            recipes.add(new Recipe(recipe.getTitle(), description, recipe.getImageResourceId(),
+                    recipe.getIngredients(), recipe.getInstructions()));
+        }
+        return recipes;
+    }
+
     @Override
     public void onSuccess(String recipesJson) {
         List<Recipe> recipes = RecipeParser.parseRecipesFromJson(recipesJson);
@@ -14,11 +14,16 @@ import androidx.camera.lifecycle.ProcessCameraProvider;
 import androidx.camera.view.PreviewView;
 import androidx.core.content.ContextCompat;
 
+import com.example.recepiesuggestor.models.ImageDescriberSingleton;
+import com.example.recepiesuggestor.utils.AdaptiveFrameSampler;
+import com.example.recepiesuggestor.utils.FramePool;
+import com.example.recepiesuggestor.utils.FramePreprocessor;
 import com.example.recepiesuggestor.utils.ImageAnalyzer;
 import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CameraXController {
 
@@ -29,9 +34,26 @@ public class CameraXController {
     private CameraSelector cameraSelector = CameraSelector.DEFAULT_BACK_CAMERA;
     private Camera boundCamera;
 
+    // Frames are analyzed on their own thread so conversion never runs on the UI thread
+    private final ExecutorService analysisExecutor =
+            Executors.newSingleThreadExecutor(r -> new Thread(r, "camera-analysis"));
+    private ImageAnalyzer imageAnalyzer;
+    // Bound on concurrent inference; frames arriving beyond it replace the one waiting
+    private final int maxInFlight;
+
     public CameraXController(ComponentActivity activity, PreviewView previewView) {
+        this(activity, previewView, ImageDescriberSingleton.DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * @param maxInFlight How many frames may be described at once; more keeps a multi-threaded
+     *                    delegate busy at the cost of memory for the frames in flight.
+     */
+    public CameraXController(ComponentActivity activity, PreviewView previewView, int maxInFlight) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be >= 1");
         this.activity = activity;
         this.previewView = previewView;
+        this.maxInFlight = maxInFlight;
     }
 
     /** Initialize CameraX and bind the preview use case. Call this AFTER permission is granted. */
@@ -65,9 +87,14 @@ public class CameraXController {
                 .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
                 .build();
 
-        // Using the main executor for simplicity here, but a dedicated background executor is better
-        Executor analysisExecutor = ContextCompat.getMainExecutor(activity);
-        imageAnalysis.setAnalyzer(analysisExecutor, new ImageAnalyzer(activity));
+        // Reuse the analyzer (and its sampler state) across rebinds
+        if (imageAnalyzer == null) {
+            imageAnalyzer = new ImageAnalyzer(activity, new AdaptiveFrameSampler(),
+                    new FramePreprocessor(FramePool.getInstance(),
+                            FramePreprocessor.DEFAULT_TARGET_SIZE, FramePreprocessor.CropMode.FULL_FRAME));
+            imageAnalyzer.setMaxInFlight(maxInFlight);
+        }
+        imageAnalysis.setAnalyzer(analysisExecutor, imageAnalyzer);
 
         try {
             boundCamera = cameraProvider.bindToLifecycle(
@@ -96,6 +123,17 @@ public class CameraXController {
         if (cameraProvider != null) cameraProvider.unbindAll();
     }
 
+    /** Release the analysis threads; call when the owning activity is destroyed. */
+    @OptIn(markerClass = ExperimentalGetImage.class) @MainThread
+    public void shutdown() {
+        stop();
+        if (imageAnalyzer != null) {
+            imageAnalyzer.close();
+            imageAnalyzer = null;
+        }
+        analysisExecutor.shutdown();
+    }
+
     public Camera getBoundCamera() {
         return boundCamera;
     }
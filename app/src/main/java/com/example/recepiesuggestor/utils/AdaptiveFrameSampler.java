@@ -0,0 +1,69 @@
+package com.example.recepiesuggestor.utils;
+
+/**
+ * Samples frames based on measured inference latency and scene change.
+ *
+ * <ul>
+ *   <li>Frames are never analyzed faster than the describer can finish them: the minimum gap
+ *       between analyzed frames follows a moving average of the inference latency.</li>
+ *   <li>Once that gap has passed, a frame is analyzed only if the scene changed noticeably since
+ *       the last analyzed frame, or if {@code maxIdleMs} went by without any analysis (so a
+ *       static shelf is still re-checked now and then).</li>
+ * </ul>
+ */
+public class AdaptiveFrameSampler implements FrameSampler {
+
+    public static final long DEFAULT_MIN_INTERVAL_MS = 250;
+    public static final long DEFAULT_MAX_IDLE_MS = 5000;
+    public static final float DEFAULT_CHANGE_THRESHOLD = 0.12f;
+
+    // Weight of the newest latency sample in the moving average
+    private static final float LATENCY_SMOOTHING = 0.3f;
+
+    private final long minIntervalMs;
+    private final long maxIdleMs;
+    private final float changeThreshold;
+
+    private float latencyAverageMs = 0;
+    private long lastAnalyzedMs = Long.MIN_VALUE;
+
+    public AdaptiveFrameSampler() {
+        this(DEFAULT_MIN_INTERVAL_MS, DEFAULT_MAX_IDLE_MS, DEFAULT_CHANGE_THRESHOLD);
+    }
+
+    public AdaptiveFrameSampler(long minIntervalMs, long maxIdleMs, float changeThreshold) {
+        this.minIntervalMs = minIntervalMs;
+        this.maxIdleMs = maxIdleMs;
+        this.changeThreshold = changeThreshold;
+    }
+
+    @Override
+    public synchronized boolean shouldAnalyze(long timestampMs, float sceneChange) {
+        if (lastAnalyzedMs == Long.MIN_VALUE) {
+            lastAnalyzedMs = timestampMs;
+            return true;
+        }
+        long elapsed = timestampMs - lastAnalyzedMs;
+        if (elapsed < currentIntervalMs()) {
+            return false;
+        }
+        if (sceneChange >= changeThreshold || elapsed >= maxIdleMs) {
+            lastAnalyzedMs = timestampMs;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void onInferenceLatency(long latencyMs) {
+        if (latencyMs < 0) return;
+        latencyAverageMs = latencyAverageMs == 0
+                ? latencyMs
+                : latencyAverageMs + LATENCY_SMOOTHING * (latencyMs - latencyAverageMs);
+    }
+
+    /** Current minimum gap between analyzed frames. */
+    public synchronized long currentIntervalMs() {
+        return Math.max(minIntervalMs, (long) latencyAverageMs);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.recepiesuggestor.utils;
+
+/** Analyzes exactly one frame out of every {@code interval} frames (0, N, 2N, ...). */
+public class FixedIntervalSampler implements FrameSampler {
+
+    private final long interval;
+    private long frameCount = 0;
+
+    public FixedIntervalSampler(long interval) {
+        if (interval < 1) throw new IllegalArgumentException("interval must be >= 1");
+        this.interval = interval;
+    }
+
+    @Override
+    public synchronized boolean shouldAnalyze(long timestampMs, float sceneChange) {
+        return frameCount++ % interval == 0;
+    }
+
+    @Override
+    public void onInferenceLatency(long latencyMs) {
+        // fixed rate, latency is ignored
+    }
+}
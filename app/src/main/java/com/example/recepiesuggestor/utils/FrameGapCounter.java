@@ -0,0 +1,46 @@
+package com.example.recepiesuggestor.utils;
+
+/**
+ * Estimates how many camera frames never reached the analyzer. Under KEEP_ONLY_LATEST, CameraX
+ * silently replaces the pending frame while the analyzer is busy, so those drops only show up as
+ * gaps in the sensor timestamps. The frame period is taken as the shortest interval among the
+ * last {@link #WINDOW} frames, which follows frame rate changes (e.g. longer exposures in low
+ * light) within a second or so; a gap of n periods counts n - 1 dropped frames.
+ *
+ * Not thread-safe; use it from the camera analysis thread only.
+ */
+final class FrameGapCounter {
+
+    static final int WINDOW = 32;
+
+    private final long[] intervals = new long[WINDOW];
+    private int intervalCount;
+    private int next;
+    private long lastTimestampNs = -1;
+    private long dropped;
+
+    /** Records a delivered frame's sensor timestamp; returns the frames estimated lost before it. */
+    long onFrame(long timestampNs) {
+        long last = lastTimestampNs;
+        lastTimestampNs = timestampNs;
+        // First frame, or timestamps went backwards (camera rebound)
+        if (last < 0 || timestampNs <= last) return 0;
+
+        long interval = timestampNs - last;
+        intervals[next] = interval;
+        next = (next + 1) % WINDOW;
+        if (intervalCount < WINDOW) intervalCount++;
+
+        long period = Long.MAX_VALUE;
+        for (int i = 0; i < intervalCount; i++) period = Math.min(period, intervals[i]);
+        // Half a period of jitter still counts as one frame
+        long lost = (interval + period / 2) / period - 1;
+        dropped += lost;
+        return lost;
+    }
+
+    /** Frames estimated lost so far. */
+    long getDroppedCount() {
+        return dropped;
+    }
+}
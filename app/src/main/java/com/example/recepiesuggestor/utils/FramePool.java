@@ -0,0 +1,98 @@
+package com.example.recepiesuggestor.utils;
+
+import android.graphics.Bitmap;
+
+/**
+ * App-wide pool of frame Bitmaps and byte buffers for the camera analysis path.
+ *
+ * Bitmaps are keyed by their dimensions and are handed back by ImageDescriberSingleton once
+ * inference on the frame has finished. Byte buffers are keyed by power-of-two size buckets,
+ * so a request may return a larger array than asked for.
+ */
+public class FramePool {
+
+    // A 1080p ARGB frame is ~8 MB, so only keep enough for the in-flight frames
+    private static final int MAX_BITMAPS = 3;
+    private static final int MAX_BYTE_ARRAYS = 4;
+
+    private static FramePool instance;
+
+    private final SizedPool<Bitmap> bitmaps = new SizedPool<>(MAX_BITMAPS, Bitmap::recycle);
+    private final SizedPool<byte[]> byteArrays = new SizedPool<>(MAX_BYTE_ARRAYS, null);
+
+    private FramePool() {}
+
+    public static synchronized FramePool getInstance() {
+        if (instance == null) {
+            instance = new FramePool();
+        }
+        return instance;
+    }
+
+    /** Returns a mutable ARGB_8888 bitmap of the given size, reusing a parked one if available. */
+    public Bitmap acquireBitmap(int width, int height) {
+        Bitmap bitmap = bitmaps.acquire(bitmapKey(width, height));
+        if (bitmap != null && !bitmap.isRecycled()) {
+            return bitmap;
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    /** Hands a bitmap back for reuse. Bitmaps that cannot be written into again are ignored. */
+    public void releaseBitmap(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()
+                || bitmap.getConfig() != Bitmap.Config.ARGB_8888) {
+            return;
+        }
+        bitmaps.release(bitmapKey(bitmap.getWidth(), bitmap.getHeight()), bitmap);
+    }
+
+    /** Returns a byte array of at least {@code minSize} bytes. */
+    public byte[] acquireBytes(int minSize) {
+        int bucket = bucketSize(minSize);
+        byte[] bytes = byteArrays.acquire(bucket);
+        return bytes != null ? bytes : new byte[bucket];
+    }
+
+    /** Hands a byte array obtained from {@link #acquireBytes(int)} back for reuse. */
+    public void releaseBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != bucketSize(bytes.length)) return;
+        byteArrays.release(bytes.length, bytes);
+    }
+
+    public long getHits() {
+        return bitmaps.getHits() + byteArrays.getHits();
+    }
+
+    public long getMisses() {
+        return bitmaps.getMisses() + byteArrays.getMisses();
+    }
+
+    public long getEvictions() {
+        return bitmaps.getEvictions() + byteArrays.getEvictions();
+    }
+
+    /** Drops every parked buffer, e.g. when the camera is unbound. */
+    public void clear() {
+        bitmaps.clear();
+        byteArrays.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "FramePool{bitmaps hits=" + bitmaps.getHits() + " misses=" + bitmaps.getMisses()
+                + " evictions=" + bitmaps.getEvictions()
+                + ", bytes hits=" + byteArrays.getHits() + " misses=" + byteArrays.getMisses()
+                + " evictions=" + byteArrays.getEvictions() + "}";
+    }
+
+    private static long bitmapKey(int width, int height) {
+        return ((long) width << 32) | (height & 0xFFFFFFFFL);
+    }
+
+    static int bucketSize(int minSize) {
+        if (minSize <= 1024) return 1024;
+        int highest = Integer.highestOneBit(minSize);
+        return highest == minSize ? minSize : highest << 1;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.recepiesuggestor.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.ImageFormat;
+import android.graphics.Rect;
+import androidx.camera.core.ImageProxy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prepares camera frames for the image describer: applies the frame's rotation, optionally
+ * center-crops, and downscales to the model's effective input size in a single pass over the
+ * YUV planes. Output bitmaps come from {@link FramePool} and conversion buffers are reused, so
+ * steady-state preprocessing does not allocate.
+ *
+ * Not thread-safe; use one instance per analysis thread.
+ */
+public class FramePreprocessor {
+
+    public enum CropMode {
+        /** Keep the whole frame. */
+        FULL_FRAME,
+        /** Keep the largest centered square. */
+        CENTER_SQUARE
+    }
+
+    /** Long edge fed to the describer; larger inputs are resized by the model anyway. */
+    public static final int DEFAULT_TARGET_SIZE = 512;
+
+    private final int targetSize;
+    private final CropMode cropMode;
+    private final FramePool framePool;
+    private final YuvToRgbConverter converter = new YuvToRgbConverter();
+    private final Rect region = new Rect();
+
+    public FramePreprocessor(FramePool framePool) {
+        this(framePool, DEFAULT_TARGET_SIZE, CropMode.FULL_FRAME);
+    }
+
+    public FramePreprocessor(FramePool framePool, int targetSize, CropMode cropMode) {
+        if (targetSize < 1) throw new IllegalArgumentException("targetSize must be >= 1");
+        this.framePool = framePool;
+        this.targetSize = targetSize;
+        this.cropMode = cropMode;
+    }
+
+    /** Preprocesses the frame according to the configured crop mode. */
+    public Bitmap process(ImageProxy imageProxy) {
+        int rotation = imageProxy.getImageInfo().getRotationDegrees();
+        int uprightWidth = uprightWidth(imageProxy.getWidth(), imageProxy.getHeight(), rotation);
+        int uprightHeight = uprightHeight(imageProxy.getWidth(), imageProxy.getHeight(), rotation);
+        if (cropMode == CropMode.CENTER_SQUARE) {
+            int side = Math.min(uprightWidth, uprightHeight);
+            int left = (uprightWidth - side) / 2;
+            int top = (uprightHeight - side) / 2;
+            region.set(left, top, left + side, top + side);
+        } else {
+            region.set(0, 0, uprightWidth, uprightHeight);
+        }
+        return process(imageProxy, region);
+    }
+
+    /**
+     * Converts one region of the upright frame (see {@link #tiles}) into a pooled bitmap whose
+     * long edge is at most the target size. Non-YUV frames are decoded whole, without cropping.
+     */
+    public Bitmap process(ImageProxy imageProxy, Rect uprightRegion) {
+        if (imageProxy.getFormat() != ImageFormat.YUV_420_888) {
+            return ImageUtils.bitmapFromImageProxy(imageProxy);
+        }
+        int rotation = imageProxy.getImageInfo().getRotationDegrees();
+        int regionWidth = uprightRegion.width();
+        int regionHeight = uprightRegion.height();
+        // Downscale only; never upscale small regions
+        float scale = Math.min(1f, (float) targetSize / Math.max(regionWidth, regionHeight));
+        int outWidth = Math.max(1, Math.round(regionWidth * scale));
+        int outHeight = Math.max(1, Math.round(regionHeight * scale));
+
+        Bitmap output = framePool.acquireBitmap(outWidth, outHeight);
+        converter.convert(imageProxy, rotation, uprightRegion, output);
+        return output;
+    }
+
+    /**
+     * Splits an upright frame into a grid of overlapping regions.
+     *
+     * @param overlap Fraction of a tile shared with each neighbour, in [0, 1).
+     */
+    public static List<Rect> tiles(int uprightWidth, int uprightHeight, int columns, int rows, float overlap) {
+        List<Rect> tiles = new ArrayList<>(columns * rows);
+        // n tiles overlapping by (overlap * tile) cover the frame: tile * (n - overlap * (n - 1)) == size
+        int tileWidth = Math.round(uprightWidth / (columns - overlap * (columns - 1)));
+        int tileHeight = Math.round(uprightHeight / (rows - overlap * (rows - 1)));
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int left = columns == 1 ? 0 : Math.round((uprightWidth - tileWidth) * (float) c / (columns - 1));
+                int top = rows == 1 ? 0 : Math.round((uprightHeight - tileHeight) * (float) r / (rows - 1));
+                tiles.add(new Rect(left, top,
+                        Math.min(uprightWidth, left + tileWidth), Math.min(uprightHeight, top + tileHeight)));
+            }
+        }
+        return tiles;
+    }
+
+    public static int uprightWidth(int width, int height, int rotationDegrees) {
+        return rotationDegrees == 90 || rotationDegrees == 270 ? height : width;
+    }
+
+    public static int uprightHeight(int width, int height, int rotationDegrees) {
+        return rotationDegrees == 90 || rotationDegrees == 270 ? width : height;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.recepiesuggestor.utils;
+
+/**
+ * Decides which camera frames are worth sending to the image describer.
+ *
+ * Implementations are called from the camera analysis thread ({@link #shouldAnalyze}) and from
+ * the inference callback thread ({@link #onInferenceLatency}), so they must be thread-safe.
+ */
+public interface FrameSampler {
+
+    /**
+     * @param timestampMs Capture time of the frame in milliseconds (monotonic).
+     * @param sceneChange How different the frame looks from the last analyzed one, from 0 (same)
+     *                    to 1 (completely different). See {@link SceneChangeDetector}.
+     * @return true if the frame should be converted and described.
+     */
+    boolean shouldAnalyze(long timestampMs, float sceneChange);
+
+    /**
+     * Reports how long a description's inference took, from its start to completion; the time
+     * the frame waited for an inference slot is not included.
+     */
+    void onInferenceLatency(long latencyMs);
+}
@@ -2,6 +2,7 @@ package com.example.recepiesuggestor.utils;
 
 import android.content.Context;
 import android.graphics.Bitmap;
+import android.graphics.ImageFormat;
 import android.media.Image;
 import android.util.Log;
 
@@ -11,52 +12,118 @@ import androidx.camera.core.ImageProxy;
 
 import com.example.recepiesuggestor.models.ImageDescriberSingleton;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
+/**
+ * Camera analysis pipeline: capture -> conversion -> inference.
+ *
+ * {@link #analyze(ImageProxy)} runs on the camera analysis executor, where CameraX's
+ * KEEP_ONLY_LATEST strategy already drops frames while we are busy; those never reach us and are
+ * estimated from sensor timestamp gaps ({@link #getCameraDroppedFrameCount()}). Conversion happens there
+ * (the ImageProxy must be closed promptly), rotating and downscaling the frame with a
+ * {@link FramePreprocessor}, and the resulting bitmap is handed straight to
+ * {@link ImageDescriberSingleton}, which never blocks: it bounds in-flight inference
+ * ({@link #setMaxInFlight(int)}) and keeps only the latest waiting frame. Which frames get converted at all is decided by a pluggable
+ * {@link FrameSampler}.
+ */
 @androidx.camera.core.ExperimentalGetImage
 public class ImageAnalyzer implements ImageAnalysis.Analyzer {
 
-    private final long SKIP_FRAMES = 8; // To process every 8th frame (0, 8, 16, ...)
+    private static final String TAG = "FRAME_PIPELINE";
+    private static final long STATS_LOG_INTERVAL = 100;
+
     private long frameCount = 0; // Starts at 0
+    private long handedOffCount = 0;
 
     private final ImageDescriberSingleton imageDescriberSingleton;
-    private final ExecutorService analysisExecutor = Executors.newSingleThreadExecutor();
+    private final FramePool framePool = FramePool.getInstance();
+    private final FrameSampler sampler;
+    private final FramePreprocessor preprocessor;
+    private final SceneChangeDetector sceneChangeDetector = new SceneChangeDetector();
+    private final FrameGapCounter frameGaps = new FrameGapCounter();
 
     public ImageAnalyzer(Context context) {
+        this(context, new AdaptiveFrameSampler(),
+                new FramePreprocessor(FramePool.getInstance()));
+    }
+
+    /**
+     * @param sampler      Decides which frames are described; fed with inference latency.
+     * @param preprocessor Rotates, crops and downscales frames for the describer. Only used
+     *                     from the analysis thread.
+     */
+    public ImageAnalyzer(Context context, FrameSampler sampler, FramePreprocessor preprocessor) {
+        this.sampler = sampler;
+        this.preprocessor = preprocessor;
         imageDescriberSingleton = ImageDescriberSingleton.getInstance(context);
+        imageDescriberSingleton.setInferenceLatencyListener(sampler::onInferenceLatency);
     }
 
     public void analyze(@NonNull ImageProxy imageProxy) {
+        frameGaps.onFrame(imageProxy.getImageInfo().getTimestamp());
         Image mediaImage = imageProxy.getImage();
 
-        if (mediaImage != null && frameCount % SKIP_FRAMES != 0) {
-
-            analysisExecutor.execute(() -> {
+        if (mediaImage != null && shouldAnalyze(imageProxy)) {
+            Bitmap bitmap = null;
+            try {
+                // Rotated, downscaled pooled bitmap; ImageDescriberSingleton returns it once inference is done
+                bitmap = preprocessor.process(imageProxy);
+            } catch (Exception e) {
+                Log.e(TAG, "Frame conversion failed", e);
+            } finally {
+                imageProxy.close();
+            }
+            if (bitmap != null) {
+                handedOffCount++;
                 try {
-                    Bitmap bitmap = ImageUtils.bitmapFromImageProxy(imageProxy);
-                    imageProxy.close();
-                    imageDescriberSingleton.prepareAndStartImageDescription(bitmap, imageProxy);
-                } catch (ExecutionException e) {
-                    // Handle exceptions thrown by the synchronous part of the Describer setup.
-//                    Log.e("ingredients", "Describer setup failed due to ExecutionException. Closing proxy.", e);
-                    imageProxy.close(); // Close proxy if setup fails synchronously
-                } catch (InterruptedException e) {
-                    // Handle thread interruption.
-//                    Log.e("ingredients", "Describer setup interrupted. Closing proxy.", e);
-                    Thread.currentThread().interrupt();
-                    imageProxy.close(); // Close proxy if setup fails synchronously
+                    // The describer owns the bitmap from here on, even if this throws
+                    imageDescriberSingleton.prepareAndStartImageDescription(bitmap, null);
                 } catch (Exception e) {
-                    // Catch any other synchronous runtime exceptions during execution.
-//                    Log.e("ingredients", "Unexpected error in background analysis. Closing proxy.", e);
-                    imageProxy.close();
+                    Log.e(TAG, "Describer setup failed", e);
                 }
-            });
+            }
         } else {
             imageProxy.close();
         }
 
         frameCount += 1;
+        if (frameCount % STATS_LOG_INTERVAL == 0) {
+            Log.d(TAG, "frames=" + frameCount + " handedOff=" + handedOffCount
+                    + " cameraDropped=" + getCameraDroppedFrameCount()
+                    + " dropped=" + getDroppedFrameCount() + " " + framePool);
+        }
+    }
+
+    private boolean shouldAnalyze(ImageProxy imageProxy) {
+        float sceneChange = 1f;
+        if (imageProxy.getFormat() == ImageFormat.YUV_420_888) {
+            ImageProxy.PlaneProxy luma = imageProxy.getPlanes()[0];
+            sceneChange = sceneChangeDetector.measure(luma.getBuffer(), luma.getRowStride(),
+                    luma.getPixelStride(), imageProxy.getWidth(), imageProxy.getHeight());
+        }
+        long timestampMs = imageProxy.getImageInfo().getTimestamp() / 1_000_000L;
+        if (sampler.shouldAnalyze(timestampMs, sceneChange)) {
+            sceneChangeDetector.markAnalyzed();
+            return true;
+        }
+        return false;
+    }
+
+    /** Sets how many frames the describer may run inference on at once; see {@link ImageDescriberSingleton#setMaxInFlight(int)}. */
+    public void setMaxInFlight(int maxInFlight) {
+        imageDescriberSingleton.setMaxInFlight(maxInFlight);
+    }
+
+    /** Camera frames CameraX replaced before they reached {@link #analyze}, estimated from timestamp gaps. */
+    public long getCameraDroppedFrameCount() {
+        return frameGaps.getDroppedCount();
+    }
+
+    /** Converted frames that were never described; see {@link ImageDescriberSingleton#getDroppedFrameCount()}. */
+    public long getDroppedFrameCount() {
+        return imageDescriberSingleton.getDroppedFrameCount();
+    }
+
+    /** Stops feeding inference latency into this analyzer's sampler. */
+    public void close() {
+        imageDescriberSingleton.setInferenceLatencyListener(null);
     }
 }
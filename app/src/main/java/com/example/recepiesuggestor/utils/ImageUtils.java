@@ -3,14 +3,15 @@ package com.example.recepiesuggestor.utils;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.ImageFormat;
-import android.graphics.Rect;
-import android.graphics.YuvImage;
 import androidx.camera.core.ImageProxy;
-import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 
 public class ImageUtils {
 
+    // One converter per analysis thread so its scratch buffers are reused frame to frame
+    private static final ThreadLocal<YuvToRgbConverter> CONVERTER =
+            ThreadLocal.withInitial(YuvToRgbConverter::new);
+
     /**
      * Converts an ImageProxy (typically in YUV_420_888 format) to a Bitmap.
      *
@@ -18,37 +19,45 @@ public class ImageUtils {
      * @return A Bitmap representation of the image, or null if conversion fails.
      */
     public static Bitmap bitmapFromImageProxy(ImageProxy imageProxy) {
+        return bitmapFromImageProxy(imageProxy, null);
+    }
+
+    /**
+     * Converts an ImageProxy to a Bitmap, writing into {@code reuse} when it is a mutable
+     * ARGB_8888 bitmap of the frame's size (see {@link FramePool#acquireBitmap(int, int)}).
+     * Otherwise a new Bitmap is allocated.
+     *
+     * @param imageProxy The ImageProxy to convert.
+     * @param reuse      Optional bitmap to overwrite with the frame's pixels.
+     * @return A Bitmap representation of the image, or null if conversion fails.
+     */
+    public static Bitmap bitmapFromImageProxy(ImageProxy imageProxy, Bitmap reuse) {
         if (imageProxy.getFormat() != ImageFormat.YUV_420_888) {
             // Fallback for non-YUV_420_888 formats if necessary, though CameraX often uses this.
             // For simplicity, this example primarily handles YUV_420_888.
             // You might need to handle other formats like JPEG directly if they occur.
             ByteBuffer buffer = imageProxy.getPlanes()[0].getBuffer();
-            byte[] bytes = new byte[buffer.remaining()];
-            buffer.get(bytes);
-            return BitmapFactory.decodeByteArray(bytes, 0, bytes.length);
+            int length = buffer.remaining();
+            byte[] bytes = FramePool.getInstance().acquireBytes(length);
+            try {
+                buffer.get(bytes, 0, length);
+                return BitmapFactory.decodeByteArray(bytes, 0, length);
+            } finally {
+                FramePool.getInstance().releaseBytes(bytes);
+            }
         }
 
-        ByteBuffer yBuffer = imageProxy.getPlanes()[0].getBuffer();
-        ByteBuffer uBuffer = imageProxy.getPlanes()[1].getBuffer();
-        ByteBuffer vBuffer = imageProxy.getPlanes()[2].getBuffer();
-
-        int ySize = yBuffer.remaining();
-        int uSize = uBuffer.remaining();
-        int vSize = vBuffer.remaining();
-
-        byte[] nv21 = new byte[ySize + uSize + vSize];
-
-        //U and V are swapped NV21 and YUV_420_888 format
-        yBuffer.get(nv21, 0, ySize);
-        vBuffer.get(nv21, ySize, vSize);
-        uBuffer.get(nv21, ySize + vSize, uSize);
-
-        YuvImage yuvImage = new YuvImage(nv21, ImageFormat.NV21, imageProxy.getWidth(), imageProxy.getHeight(), null);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        yuvImage.compressToJpeg(new Rect(0, 0, yuvImage.getWidth(), yuvImage.getHeight()), 100, out);
-        byte[] imageBytes = out.toByteArray();
-        Bitmap bitmap = BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length);
+        int width = imageProxy.getWidth();
+        int height = imageProxy.getHeight();
+        Bitmap bitmap = reuse;
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()
+                || bitmap.getConfig() != Bitmap.Config.ARGB_8888
+                || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
 
+        // Direct YUV -> ARGB conversion; no NV21 copy, JPEG encode or decode per frame
+        CONVERTER.get().convert(imageProxy, bitmap);
         return bitmap;
     }
 }
@@ -0,0 +1,102 @@
+package com.example.recepiesuggestor.utils;
+
+import android.graphics.Bitmap;
+
+import java.util.Arrays;
+
+/**
+ * 64-bit difference hash (dHash) of a frame: the image is reduced to a 9x8 grid of mean luma
+ * values and each bit records whether a cell is brighter than its right neighbour. Frames that
+ * look alike have hashes a few bits apart (see {@link #distance(long, long)}).
+ */
+public final class PerceptualHash {
+
+    private static final int GRID_COLUMNS = 9;
+    private static final int GRID_ROWS = 8;
+    // Pixels sampled per grid cell along each axis; more would not change the hash noticeably
+    private static final int SAMPLES_PER_CELL = 8;
+
+    /** Cell totals and one pixel row, reused by every hash computed on the same thread. */
+    private static final class Scratch {
+        final long[] sums = new long[GRID_COLUMNS * GRID_ROWS];
+        final int[] counts = new int[GRID_COLUMNS * GRID_ROWS];
+        int[] row = new int[0];
+
+        Scratch reset() {
+            Arrays.fill(sums, 0);
+            Arrays.fill(counts, 0);
+            return this;
+        }
+
+        int[] row(int width) {
+            if (row.length < width) row = new int[width];
+            return row;
+        }
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private PerceptualHash() {}
+
+    /** Hashes a bitmap, reading only the sampled rows. */
+    public static long dHash(Bitmap bitmap) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        Scratch scratch = SCRATCH.get().reset();
+        int[] row = scratch.row(width);
+        int step = sampleStep(height, GRID_ROWS);
+        for (int y = step / 2; y < height; y += step) {
+            bitmap.getPixels(row, 0, width, 0, y, width, 1);
+            accumulateRow(row, 0, width, y, height, scratch.sums, scratch.counts);
+        }
+        return hashFromCells(scratch.sums, scratch.counts);
+    }
+
+    /** Hashes packed ARGB pixels (row-major, stride == width). */
+    public static long dHash(int[] argb, int width, int height) {
+        Scratch scratch = SCRATCH.get().reset();
+        int step = sampleStep(height, GRID_ROWS);
+        for (int y = step / 2; y < height; y += step) {
+            accumulateRow(argb, y * width, width, y, height, scratch.sums, scratch.counts);
+        }
+        return hashFromCells(scratch.sums, scratch.counts);
+    }
+
+    /** Number of differing bits between two hashes (0 = same, 64 = opposite). */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static int sampleStep(int length, int cells) {
+        return Math.max(1, length / (cells * SAMPLES_PER_CELL));
+    }
+
+    private static void accumulateRow(int[] pixels, int offset, int width, int y, int height,
+                                      long[] sums, int[] counts) {
+        int row = Math.min(GRID_ROWS - 1, y * GRID_ROWS / height);
+        int step = sampleStep(width, GRID_COLUMNS);
+        for (int x = step / 2; x < width; x += step) {
+            int p = pixels[offset + x];
+            int luma = (((p >> 16) & 0xFF) * 77 + ((p >> 8) & 0xFF) * 150 + (p & 0xFF) * 29) >> 8;
+            int cell = row * GRID_COLUMNS + Math.min(GRID_COLUMNS - 1, x * GRID_COLUMNS / width);
+            sums[cell] += luma;
+            counts[cell]++;
+        }
+    }
+
+    private static long hashFromCells(long[] sums, int[] counts) {
+        long hash = 0;
+        int bit = 0;
+        for (int r = 0; r < GRID_ROWS; r++) {
+            for (int c = 0; c < GRID_COLUMNS - 1; c++) {
+                int left = r * GRID_COLUMNS + c;
+                // Compare means without dividing: sumL / countL > sumR / countR
+                if (sums[left] * Math.max(1, counts[left + 1]) > sums[left + 1] * Math.max(1, counts[left])) {
+                    hash |= 1L << bit;
+                }
+                bit++;
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.recepiesuggestor.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cheap scene-change signal: a luma histogram over a sparse sample grid of the Y plane,
+ * compared with the histogram of the last analyzed frame.
+ *
+ * Not thread-safe; use it from the camera analysis thread only.
+ */
+public class SceneChangeDetector {
+
+    private static final int BINS = 32;
+    private static final int GRID_COLUMNS = 64;
+    private static final int GRID_ROWS = 48;
+
+    private final int[] current = new int[BINS];
+    private final int[] reference = new int[BINS];
+    private int currentSamples;
+    private int referenceSamples;
+
+    /**
+     * Builds the histogram of the given Y plane and returns its distance to the reference frame,
+     * from 0 (identical distribution) to 1 (disjoint). Returns 1 while there is no reference.
+     */
+    public float measure(ByteBuffer luma, int rowStride, int pixelStride, int width, int height) {
+        java.util.Arrays.fill(current, 0);
+        int base = luma.position();
+        int columns = Math.min(GRID_COLUMNS, width);
+        int rows = Math.min(GRID_ROWS, height);
+        for (int r = 0; r < rows; r++) {
+            int rowOffset = base + (r * height / rows) * rowStride;
+            for (int c = 0; c < columns; c++) {
+                int value = luma.get(rowOffset + (c * width / columns) * pixelStride) & 0xFF;
+                current[value * BINS >> 8]++;
+            }
+        }
+        currentSamples = rows * columns;
+
+        if (referenceSamples == 0 || currentSamples == 0) return 1f;
+        long distance = 0;
+        for (int i = 0; i < BINS; i++) {
+            // Normalise both histograms to the same sample count before comparing
+            distance += Math.abs((long) current[i] * referenceSamples - (long) reference[i] * currentSamples);
+        }
+        return distance / (2f * currentSamples * referenceSamples);
+    }
+
+    /** Makes the last measured frame the reference for following frames. */
+    public void markAnalyzed() {
+        System.arraycopy(current, 0, reference, 0, BINS);
+        referenceSamples = currentSamples;
+    }
+}
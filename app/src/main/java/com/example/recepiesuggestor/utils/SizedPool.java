@@ -0,0 +1,133 @@
+package com.example.recepiesuggestor.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded free-list of reusable objects grouped by a size key. When more than {@code maxItems}
+ * objects are parked, items are evicted from the least recently used size first.
+ *
+ * Keys live in a short list scanned linearly (camera frames only come in a couple of sizes),
+ * so acquire and release do not allocate once the pool is warm.
+ */
+class SizedPool<T> {
+
+    interface Evictor<T> {
+        void onEvicted(T item);
+    }
+
+    private static final class Bucket<T> {
+        final long key;
+        final ArrayDeque<T> items = new ArrayDeque<>();
+        long lastUsed;
+
+        Bucket(long key) {
+            this.key = key;
+        }
+    }
+
+    private final int maxItems;
+    private final Evictor<T> evictor;
+    private final List<Bucket<T>> buckets = new ArrayList<>();
+    private int size;
+    private long tick;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    SizedPool(int maxItems, Evictor<T> evictor) {
+        this.maxItems = maxItems;
+        this.evictor = evictor;
+    }
+
+    /** Returns a parked item for {@code key}, or null on a miss. */
+    synchronized T acquire(long key) {
+        Bucket<T> bucket = find(key);
+        if (bucket != null && !bucket.items.isEmpty()) {
+            bucket.lastUsed = ++tick;
+            size--;
+            hits++;
+            return bucket.items.pop();
+        }
+        misses++;
+        return null;
+    }
+
+    /** Parks an item for reuse, evicting least recently used items past the cap. */
+    synchronized void release(long key, T item) {
+        Bucket<T> bucket = find(key);
+        if (bucket == null) {
+            bucket = new Bucket<>(key);
+            buckets.add(bucket);
+        }
+        for (T parked : bucket.items) {
+            if (parked == item) return; // already released
+        }
+        bucket.items.push(item);
+        bucket.lastUsed = ++tick;
+        size++;
+        while (size > maxItems) {
+            evictOne();
+        }
+    }
+
+    synchronized void clear() {
+        for (Bucket<T> bucket : buckets) {
+            while (!bucket.items.isEmpty()) {
+                evict(bucket);
+            }
+        }
+        buckets.clear();
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private Bucket<T> find(long key) {
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket<T> bucket = buckets.get(i);
+            if (bucket.key == key) return bucket;
+        }
+        return null;
+    }
+
+    private void evictOne() {
+        Bucket<T> oldest = null;
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket<T> bucket = buckets.get(i);
+            if (!bucket.items.isEmpty() && (oldest == null || bucket.lastUsed < oldest.lastUsed)) {
+                oldest = bucket;
+            }
+        }
+        if (oldest == null) return;
+        evict(oldest);
+        if (oldest.items.isEmpty()) {
+            buckets.remove(oldest);
+        }
+    }
+
+    private void evict(Bucket<T> bucket) {
+        // Drop the coldest item of the bucket (items are pushed/popped at the head)
+        T item = bucket.items.pollLast();
+        size--;
+        evictions++;
+        if (evictor != null && item != null) {
+            evictor.onEvicted(item);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.recepiesuggestor.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+import androidx.camera.core.ImageProxy;
+import java.nio.ByteBuffer;
+
+/**
+ * Converts YUV_420_888 frames straight to ARGB_8888 pixels, without the NV21 -> JPEG -> Bitmap
+ * round-trip. Row and pixel strides of every plane are honoured, so both planar (I420) and
+ * semi-planar (NV12/NV21) camera layouts are handled.
+ *
+ * An instance keeps its scratch plane copies and pixel array between frames and is therefore
+ * not thread-safe; use one converter per analysis thread.
+ */
+public class YuvToRgbConverter {
+
+    // BT.601 full-range (JFIF) coefficients in 16.16 fixed point; these match what
+    // YuvImage.compressToJpeg + BitmapFactory produced for camera frames.
+    private static final int CR_TO_R = 91881;   // 1.402
+    private static final int CB_TO_G = 22554;   // 0.344136
+    private static final int CR_TO_G = 46802;   // 0.714136
+    private static final int CB_TO_B = 116130;  // 1.772
+    private static final int ROUND = 1 << 15;
+
+    private byte[] yBytes = new byte[0];
+    private byte[] uBytes = new byte[0];
+    private byte[] vBytes = new byte[0];
+    private int[] argb = new int[0];
+
+    /**
+     * Converts a YUV_420_888 ImageProxy into the given Bitmap. The Bitmap must be mutable,
+     * ARGB_8888 and exactly the size of the frame.
+     */
+    public void convert(ImageProxy imageProxy, Bitmap output) {
+        int width = imageProxy.getWidth();
+        int height = imageProxy.getHeight();
+        if (output.getWidth() != width || output.getHeight() != height) {
+            throw new IllegalArgumentException("Output bitmap is " + output.getWidth() + "x"
+                    + output.getHeight() + " but frame is " + width + "x" + height);
+        }
+        int[] pixels = convert(imageProxy);
+        output.setPixels(pixels, 0, width, 0, 0, width, height);
+    }
+
+    /**
+     * Converts a YUV_420_888 ImageProxy into this converter's reused pixel array. The returned
+     * array is only valid until the next call and may be longer than width * height.
+     */
+    public int[] convert(ImageProxy imageProxy) {
+        ImageProxy.PlaneProxy[] planes = imageProxy.getPlanes();
+        int width = imageProxy.getWidth();
+        int height = imageProxy.getHeight();
+
+        yBytes = copyPlane(planes[0].getBuffer(), yBytes);
+        uBytes = copyPlane(planes[1].getBuffer(), uBytes);
+        vBytes = copyPlane(planes[2].getBuffer(), vBytes);
+        if (argb.length < width * height) {
+            argb = new int[width * height];
+        }
+
+        // U and V share row and pixel strides per the YUV_420_888 contract
+        yuv420ToArgb(
+                yBytes, planes[0].getRowStride(), planes[0].getPixelStride(),
+                uBytes, vBytes, planes[1].getRowStride(), planes[1].getPixelStride(),
+                width, height, argb);
+        return argb;
+    }
+
+    /**
+     * Converts a region of the upright frame into {@code output}, rotating by
+     * {@code rotationDegrees} and scaling to the bitmap's size in one pass.
+     *
+     * @param rotationDegrees Clockwise rotation that makes the frame upright (0, 90, 180, 270),
+     *                        as reported by {@code ImageInfo.getRotationDegrees()}.
+     * @param uprightRegion   Region to convert, in coordinates of the rotated (upright) frame.
+     */
+    public void convert(ImageProxy imageProxy, int rotationDegrees, Rect uprightRegion, Bitmap output) {
+        ImageProxy.PlaneProxy[] planes = imageProxy.getPlanes();
+        int outWidth = output.getWidth();
+        int outHeight = output.getHeight();
+
+        yBytes = copyPlane(planes[0].getBuffer(), yBytes);
+        uBytes = copyPlane(planes[1].getBuffer(), uBytes);
+        vBytes = copyPlane(planes[2].getBuffer(), vBytes);
+        if (argb.length < outWidth * outHeight) {
+            argb = new int[outWidth * outHeight];
+        }
+
+        yuv420ToArgbScaled(
+                yBytes, planes[0].getRowStride(), planes[0].getPixelStride(),
+                uBytes, vBytes, planes[1].getRowStride(), planes[1].getPixelStride(),
+                imageProxy.getWidth(), imageProxy.getHeight(), rotationDegrees,
+                uprightRegion.left, uprightRegion.top, uprightRegion.width(), uprightRegion.height(),
+                outWidth, outHeight, argb);
+        output.setPixels(argb, 0, outWidth, 0, 0, outWidth, outHeight);
+    }
+
+    /**
+     * Like {@link #yuv420ToArgb} but samples a region of the rotated frame with nearest-neighbour
+     * scaling, so only output pixels are ever computed.
+     *
+     * @param width           Sensor (unrotated) frame width.
+     * @param height          Sensor (unrotated) frame height.
+     * @param rotationDegrees Clockwise rotation to apply: 0, 90, 180 or 270.
+     * @param regionLeft      Left edge of the region in upright coordinates (after rotation);
+     *                        likewise for the other region parameters.
+     */
+    public static void yuv420ToArgbScaled(
+            byte[] y, int yRowStride, int yPixelStride,
+            byte[] u, byte[] v, int uvRowStride, int uvPixelStride,
+            int width, int height, int rotationDegrees,
+            int regionLeft, int regionTop, int regionWidth, int regionHeight,
+            int outWidth, int outHeight, int[] out) {
+        // Sensor position as an affine function of the upright position (ux, uy):
+        // sx = sx0 + sxU * ux + sxV * uy, sy = sy0 + syU * ux + syV * uy
+        int sx0, sxU, sxV, sy0, syU, syV;
+        switch (rotationDegrees) {
+            case 90:
+                sx0 = 0; sxU = 0; sxV = 1;
+                sy0 = height - 1; syU = -1; syV = 0;
+                break;
+            case 180:
+                sx0 = width - 1; sxU = -1; sxV = 0;
+                sy0 = height - 1; syU = 0; syV = -1;
+                break;
+            case 270:
+                sx0 = width - 1; sxU = 0; sxV = -1;
+                sy0 = 0; syU = 1; syV = 0;
+                break;
+            default:
+                sx0 = 0; sxU = 1; sxV = 0;
+                sy0 = 0; syU = 0; syV = 1;
+                break;
+        }
+
+        // 16.16 fixed-point steps through the region, sampling at pixel centres
+        int stepX = (int) (((long) regionWidth << 16) / outWidth);
+        int stepY = (int) (((long) regionHeight << 16) / outHeight);
+        int o = 0;
+        int fy = (regionTop << 16) + (stepY >> 1);
+        for (int oy = 0; oy < outHeight; oy++, fy += stepY) {
+            int uy = fy >> 16;
+            int rowX = sx0 + sxV * uy;
+            int rowY = sy0 + syV * uy;
+            int fx = (regionLeft << 16) + (stepX >> 1);
+            for (int ox = 0; ox < outWidth; ox++, fx += stepX) {
+                int ux = fx >> 16;
+                int sx = rowX + sxU * ux;
+                int sy = rowY + syU * ux;
+
+                int uvIndex = (sy >> 1) * uvRowStride + (sx >> 1) * uvPixelStride;
+                int yy = ((y[sy * yRowStride + sx * yPixelStride] & 0xFF) << 16) + ROUND;
+                int cb = (u[uvIndex] & 0xFF) - 128;
+                int cr = (v[uvIndex] & 0xFF) - 128;
+
+                int r = (yy + CR_TO_R * cr) >> 16;
+                int g = (yy - CB_TO_G * cb - CR_TO_G * cr) >> 16;
+                int b = (yy + CB_TO_B * cb) >> 16;
+
+                out[o++] = 0xFF000000 | (clamp(r) << 16) | (clamp(g) << 8) | clamp(b);
+            }
+        }
+    }
+
+    /**
+     * Converts raw YUV 4:2:0 planes to packed ARGB_8888 ints (row-major, stride == width).
+     * Chroma is sampled at (col / 2, row / 2).
+     */
+    public static void yuv420ToArgb(
+            byte[] y, int yRowStride, int yPixelStride,
+            byte[] u, byte[] v, int uvRowStride, int uvPixelStride,
+            int width, int height, int[] out) {
+        int o = 0;
+        for (int row = 0; row < height; row++) {
+            int yRow = row * yRowStride;
+            int uvRow = (row >> 1) * uvRowStride;
+            for (int col = 0; col < width; col++) {
+                int uvIndex = uvRow + (col >> 1) * uvPixelStride;
+                int yy = ((y[yRow + col * yPixelStride] & 0xFF) << 16) + ROUND;
+                int cb = (u[uvIndex] & 0xFF) - 128;
+                int cr = (v[uvIndex] & 0xFF) - 128;
+
+                int r = (yy + CR_TO_R * cr) >> 16;
+                int g = (yy - CB_TO_G * cb - CR_TO_G * cr) >> 16;
+                int b = (yy + CB_TO_B * cb) >> 16;
+
+                out[o++] = 0xFF000000 | (clamp(r) << 16) | (clamp(g) << 8) | clamp(b);
+            }
+        }
+    }
+
+    private static int clamp(int c) {
+        return c < 0 ? 0 : (c > 255 ? 255 : c);
+    }
+
+    /** Copies the remaining bytes of a plane into dst (growing it if needed) without consuming the buffer. */
+    private static byte[] copyPlane(ByteBuffer buffer, byte[] dst) {
+        int size = buffer.remaining();
+        if (dst.length < size) {
+            dst = new byte[size];
+        }
+        int position = buffer.position();
+        buffer.get(dst, 0, size);
+        buffer.position(position);
+        return dst;
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.recepiesuggestor.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class IngredientAccumulatorTest {
+
+    private static final long HALF_LIFE = 10_000;
+
+    /** Reports on the first sighting, like the accumulator used to. */
+    private static final IngredientAccumulator.Policy REPORT_ALL =
+            new IngredientAccumulator.Policy(HALF_LIFE, 1.0, 0.25, 1000);
+
+    private static final IngredientAccumulator.Policy TWO_SIGHTINGS =
+            new IngredientAccumulator.Policy(HALF_LIFE, 1.5, 0.25, 3);
+
+    private final AtomicLong time = new AtomicLong(1_000);
+
+    private IngredientAccumulator accumulator(IngredientAccumulator.Policy policy) {
+        return new IngredientAccumulator(policy, time::get);
+    }
+
+    @Test
+    public void add_dedupesCaseInsensitivelyAndKeepsFirstCasing() {
+        IngredientAccumulator acc = accumulator(REPORT_ALL);
+        acc.addIngredientNames(null, Arrays.asList("Milk", " eggs ", "milk", "", null));
+        acc.addIngredientName(null, "EGGS");
+
+        assertEquals(Arrays.asList("Milk", "eggs"), new ArrayList<>(acc.getCurrentIngredients()));
+        assertEquals("Milk", acc.getDetectedIngredientsMap().get("milk"));
+        assertEquals(1, acc.getSnapshot().getEntry("milk").hits);
+        assertEquals(2, acc.getSnapshot().getEntry("Eggs").hits);
+        assertEquals(2, acc.getVersion());
+    }
+
+    @Test
+    public void defaultPolicy_keepsConfirmedIngredientsForTheSession() {
+        IngredientAccumulator acc = accumulator(IngredientAccumulator.Policy.DEFAULT);
+        acc.addIngredientNames(null, Arrays.asList("milk", "spoon"));
+        time.addAndGet(2_000);
+        acc.addIngredientName(null, "milk");
+        assertEquals(Collections.singleton("milk"), acc.getCurrentIngredients());
+
+        // Still there after scanning the rest of the kitchen
+        time.addAndGet(29 * 60_000);
+        assertEquals(Collections.singleton("milk"), acc.getCurrentIngredients());
+        time.addAndGet(15 * 60_000);
+        assertEquals(Collections.singleton("milk"), acc.getCurrentIngredients());
+        assertNull(acc.getSnapshot().getEntry("spoon"));
+
+        // Gone about 45 minutes after the last sighting
+        time.addAndGet(2 * 60_000);
+        assertTrue(acc.getCurrentIngredients().isEmpty());
+        assertEquals(0, acc.getSnapshot().getTrackedCount());
+    }
+
+    @Test
+    public void snapshot_isUnaffectedByLaterChanges() {
+        IngredientAccumulator acc = accumulator(REPORT_ALL);
+        acc.addIngredientName(null, "basil");
+        IngredientAccumulator.Snapshot before = acc.getSnapshot();
+
+        acc.addIngredientName(null, "tomato");
+        acc.clear();
+
+        assertEquals(Collections.singleton("basil"), before.getIngredients());
+        assertTrue(acc.getCurrentIngredients().isEmpty());
+        assertEquals(3, acc.getVersion());
+    }
+
+    @Test
+    public void listeners_receiveDeltasOfReportedSet() {
+        IngredientAccumulator acc = accumulator(REPORT_ALL);
+        List<IngredientAccumulator.Change> changes = new ArrayList<>();
+        acc.addChangeListener(changes::add);
+
+        acc.addIngredientNames(null, Arrays.asList("bread", "cheese"));
+        acc.addIngredientName(null, "Bread");            // a repeat sighting, not a change
+        assertTrue(acc.removeIngredientName("CHEESE"));
+        assertFalse(acc.removeIngredientName("cheese"));
+        acc.addIngredientName(null, "ham");
+        acc.clear();
+
+        assertEquals(4, changes.size());
+        assertEquals(Arrays.asList("bread", "cheese"), changes.get(0).added);
+        assertEquals(Collections.singletonList("cheese"), changes.get(1).removed);
+        assertEquals(Collections.singletonList("ham"), changes.get(2).added);
+        assertEquals(Arrays.asList("bread", "ham"), changes.get(3).removed);
+        for (int i = 1; i < changes.size(); i++) {
+            assertTrue(changes.get(i).snapshot.version > changes.get(i - 1).snapshot.version);
+        }
+    }
+
+    @Test
+    public void singleSighting_isTrackedButNotReported() {
+        IngredientAccumulator acc = accumulator(TWO_SIGHTINGS);
+        acc.addIngredientNames(null, Arrays.asList("shoe", "milk"));
+        time.addAndGet(2_000);
+        acc.addIngredientName(null, "milk");
+
+        assertEquals(Collections.singleton("milk"), acc.getCurrentIngredients());
+        assertEquals(2, acc.getSnapshot().getTrackedCount());
+        IngredientAccumulator.Entry milk = acc.getSnapshot().getEntry("milk");
+        assertEquals(1_000, milk.firstSeen);
+        assertEquals(3_000, milk.lastSeen);
+        assertEquals(1 + Math.pow(0.5, 0.2), milk.scoreAt(3_000, TWO_SIGHTINGS), 1e-9);
+    }
+
+    @Test
+    public void sightingsFarApart_doNotConfirm() {
+        IngredientAccumulator acc = accumulator(TWO_SIGHTINGS);
+        acc.addIngredientName(null, "shoe");
+        time.addAndGet(HALF_LIFE + 1);            // score 1 -> just under 0.5
+        acc.addIngredientName(null, "shoe");
+
+        assertTrue(acc.getCurrentIngredients().isEmpty());
+        assertEquals(2, acc.getSnapshot().getEntry("shoe").hits);
+    }
+
+    @Test
+    public void staleEntries_areEvictedOnRead() {
+        IngredientAccumulator acc = accumulator(TWO_SIGHTINGS);
+        List<IngredientAccumulator.Change> changes = new ArrayList<>();
+        acc.addChangeListener(changes::add);
+        acc.addIngredientName(null, "rice");
+        acc.addIngredientName(null, "rice");      // score 2: evicted after three half-lives
+        acc.addIngredientName(null, "shoe");      // score 1: evicted after two
+
+        time.addAndGet(2 * HALF_LIFE);
+        assertEquals(Collections.singleton("rice"), acc.getCurrentIngredients());
+        assertNull(acc.getSnapshot().getEntry("shoe"));
+
+        time.addAndGet(HALF_LIFE);
+        assertTrue(acc.getCurrentIngredients().isEmpty());
+        assertEquals(0, acc.getSnapshot().getTrackedCount());
+        assertEquals(Collections.singletonList("rice"), changes.get(changes.size() - 1).removed);
+    }
+
+    @Test
+    public void capacity_evictsWeakestEntry() {
+        IngredientAccumulator acc = accumulator(TWO_SIGHTINGS);
+        acc.addIngredientNames(null, Arrays.asList("a", "b", "c"));
+        acc.addIngredientNames(null, Arrays.asList("a", "c"));
+        time.addAndGet(1_000);
+        acc.addIngredientName(null, "d");
+
+        IngredientAccumulator.Snapshot snapshot = acc.getSnapshot();
+        assertEquals(3, snapshot.getTrackedCount());
+        assertNull(snapshot.getEntry("b"));
+        assertNotNull(snapshot.getEntry("d"));
+    }
+
+    @Test
+    public void concurrentWriters_loseNoIngredients() throws Exception {
+        final IngredientAccumulator acc = accumulator(REPORT_ALL);
+        final AtomicLong added = new AtomicLong();
+        acc.addChangeListener(change -> added.addAndGet(change.added.size()));
+        int threads = 4, perThread = 250;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) acc.addIngredientName(null, "item" + (offset * perThread + i));
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+
+        assertEquals(threads * perThread, acc.getSnapshot().size());
+        assertEquals(threads * perThread, acc.getVersion());
+        assertEquals(threads * perThread, added.get());
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.recepiesuggestor.data;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class IngredientJournalTest {
+
+    private static final IngredientAccumulator.Policy POLICY =
+            new IngredientAccumulator.Policy(60_000, 1.5, 0.25, 64);
+
+    private final AtomicLong clock = new AtomicLong(5_000);
+    private final AtomicLong wall = new AtomicLong(1_700_000_000_000L);
+    private ScheduledExecutorService writer;
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        writer = Executors.newSingleThreadScheduledExecutor();
+        file = File.createTempFile("ingredients", ".journal");
+        file.delete();
+    }
+
+    @After
+    public void tearDown() {
+        writer.shutdownNow();
+        file.delete();
+    }
+
+    private IngredientJournal journal(int compactEvery) {
+        return new IngredientJournal(file, wall::get, writer, 10_000, compactEvery);
+    }
+
+    private IngredientAccumulator accumulator() {
+        return new IngredientAccumulator(POLICY, clock::get);
+    }
+
+    private void advance(long ms) {
+        clock.addAndGet(ms);
+        wall.addAndGet(ms);
+    }
+
+    @Test
+    public void restore_replaysEventsOfPreviousSession() throws Exception {
+        IngredientAccumulator first = accumulator();
+        IngredientJournal journal = journal(1000);
+        assertEquals(0, (int) journal.restoreInto(first).get());
+
+        first.addIngredientNames(null, Arrays.asList("Milk", "eggs", "shoe"));
+        advance(1_000);
+        first.addIngredientNames(null, Arrays.asList("milk", "eggs"));
+        first.addIngredientName(null, "basil");
+        first.addIngredientName(null, "basil");
+        first.removeIngredientName("basil");
+        journal.flush().get();
+
+        // New process: the device clock restarted, wall time moved on a little
+        clock.set(100);
+        wall.addAndGet(2_000);
+        IngredientAccumulator second = accumulator();
+        assertEquals(5, (int) journal(1000).restoreInto(second).get());
+
+        assertEquals(Arrays.asList("Milk", "eggs"), Arrays.asList(second.getCurrentIngredients().toArray()));
+        IngredientAccumulator.Entry milk = second.getSnapshot().getEntry("milk");
+        assertEquals(2, milk.hits);
+        // The last write (the second sighting) is now; the restart itself did not age anything
+        assertEquals(100 - 1_000, milk.firstSeen);
+        assertEquals(100, milk.lastSeen);
+        assertEquals(first.getSnapshot().getEntry("milk").scoreAt(6_000, POLICY),
+                milk.scoreAt(clock.get(), POLICY), 1e-9);
+        assertEquals(1, second.getSnapshot().getEntry("shoe").hits);
+        assertNull(second.getSnapshot().getEntry("basil"));
+    }
+
+    @Test
+    public void restore_afterLongGap_keepsPantry() throws Exception {
+        IngredientAccumulator first = accumulator();
+        IngredientJournal journal = journal(1000);
+        journal.restoreInto(first).get();
+        first.addIngredientNames(null, Arrays.asList("rice", "tuna"));
+        advance(1_000);
+        first.addIngredientName(null, "rice");
+        journal.flush().get();
+        double riceScore = first.getSnapshot().getEntry("rice").scoreAt(clock.get(), POLICY);
+
+        // Killed in the background, reopened half an hour later
+        clock.set(100);
+        wall.addAndGet(30 * 60_000);
+        IngredientAccumulator second = accumulator();
+        journal(1000).restoreInto(second).get();
+
+        assertEquals(Arrays.asList("rice"), Arrays.asList(second.getCurrentIngredients().toArray()));
+        assertEquals(riceScore, second.getSnapshot().getEntry("rice").scoreAt(clock.get(), POLICY), 1e-9);
+        assertNotNull(second.getSnapshot().getEntry("tuna"));
+
+        // Decay resumes with the new session
+        clock.addAndGet(POLICY.halfLifeMs);
+        assertEquals(riceScore / 2, second.getSnapshot().getEntry("rice").scoreAt(clock.get(), POLICY), 1e-9);
+    }
+
+    @Test
+    public void compaction_keepsStateAndDropsReplayedEvents() throws Exception {
+        IngredientAccumulator first = accumulator();
+        IngredientJournal journal = journal(3);
+        journal.restoreInto(first).get();
+        for (int i = 0; i < 10; i++) {
+            first.addIngredientName(null, "rice");
+            journal.flush().get();
+        }
+        first.addIngredientName(null, "tuna");
+        journal.flush().get();
+
+        IngredientAccumulator second = accumulator();
+        // One compacted entry for rice, plus the events since the last compaction
+        assertTrue(journal(3).restoreInto(second).get() < 4);
+        assertEquals(10, second.getSnapshot().getEntry("rice").hits);
+        assertEquals(1, second.getSnapshot().getEntry("tuna").hits);
+    }
+
+    @Test
+    public void clear_isJournaled() throws Exception {
+        IngredientAccumulator first = accumulator();
+        IngredientJournal journal = journal(1000);
+        journal.restoreInto(first).get();
+        first.addIngredientNames(null, Arrays.asList("ham", "ham"));
+        first.clear();
+        first.addIngredientName(null, "jam");
+        journal.flush().get();
+
+        IngredientAccumulator second = accumulator();
+        journal(1000).restoreInto(second).get();
+        assertNull(second.getSnapshot().getEntry("ham"));
+        assertEquals(1, second.getSnapshot().getTrackedCount());
+    }
+
+    @Test
+    public void restore_dropsTornTail() throws Exception {
+        IngredientAccumulator first = accumulator();
+        IngredientJournal journal = journal(1000);
+        journal.restoreInto(first).get();
+        first.addIngredientName(null, "pear");
+        first.addIngredientName(null, "plum");
+        journal.flush().get();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+
+        IngredientAccumulator second = accumulator();
+        journal(1000).restoreInto(second).get();
+        assertEquals(1, second.getSnapshot().getTrackedCount());
+        assertNotNull(second.getSnapshot().getEntry("pear"));
+    }
+
+    @Test
+    public void restore_ignoresForeignFile() throws Exception {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("not a journal".getBytes("UTF-8"));
+        }
+        IngredientAccumulator acc = accumulator();
+        IngredientJournal journal = journal(1000);
+        assertEquals(0, (int) journal.restoreInto(acc).get());
+
+        // The file was replaced by a fresh compaction and records from here on
+        acc.addIngredientName(null, "kiwi");
+        journal.flush().get();
+        IngredientAccumulator second = accumulator();
+        journal(1000).restoreInto(second).get();
+        assertEquals(1, second.getSnapshot().getTrackedCount());
+        assertNotNull(second.getSnapshot().getEntry("kiwi"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.recepiesuggestor.data;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class IngredientVocabularyTest {
+
+    @Test
+    public void normalize_trimsLowersAndSingularizesLastWord() {
+        assertEquals("cherry tomato", IngredientVocabulary.normalize("  Cherry   Tomatoes "));
+        assertEquals("egg", IngredientVocabulary.normalize("EGGS"));
+        assertEquals("berry", IngredientVocabulary.normalize("berries"));
+        assertEquals("peach", IngredientVocabulary.normalize("peaches"));
+        assertEquals("swiss", IngredientVocabulary.normalize("Swiss"));
+        assertEquals("hummus", IngredientVocabulary.normalize("hummus"));
+        assertEquals("pea", IngredientVocabulary.normalize("peas"));
+        assertEquals("ice", IngredientVocabulary.normalize("ice"));
+        assertEquals("", IngredientVocabulary.normalize("   "));
+        assertEquals("", IngredientVocabulary.normalize(null));
+    }
+
+    @Test
+    public void intern_sharesIdsBetweenSpellingsOnly() {
+        IngredientVocabulary vocabulary = new IngredientVocabulary();
+        int tomato = vocabulary.intern("Tomatoes");
+        assertEquals(tomato, vocabulary.intern("tomato"));
+        assertEquals(tomato, vocabulary.idOf(" TOMATO "));
+        int oil = vocabulary.intern("oil");
+        assertNotEquals(oil, vocabulary.intern("boil"));
+        assertNotEquals(oil, vocabulary.intern("olive oil"));
+        assertEquals(-1, vocabulary.intern(" "));
+        assertEquals(-1, vocabulary.idOf("basil"));
+        assertEquals("tomato", vocabulary.nameOf(tomato));
+        assertEquals(4, vocabulary.size());
+    }
+
+    @Test
+    public void internAll_returnsSortedDistinctIds() {
+        IngredientVocabulary vocabulary = new IngredientVocabulary();
+        int milk = vocabulary.intern("milk");
+        int[] ids = vocabulary.internAll("eggs, milk,egg,,Milk ");
+        assertArrayEquals(new int[]{milk, vocabulary.idOf("egg")}, ids);
+        assertArrayEquals(new int[]{milk}, vocabulary.idsOf(Arrays.asList("MILK", "unknown")));
+    }
+
+    @Test
+    public void sets_mergeSortedIds() {
+        int[] a = IngredientSets.of(new int[]{5, 1, 3, 3, 9}, 5);
+        int[] b = {2, 3, 9, 10};
+        assertArrayEquals(new int[]{1, 3, 5, 9}, a);
+        assertEquals(2, IngredientSets.overlap(a, b));
+        assertArrayEquals(new int[]{1, 5}, IngredientSets.difference(a, b));
+        assertArrayEquals(new int[]{1, 2, 3, 5, 9, 10}, IngredientSets.union(a, b));
+        assertTrue(IngredientSets.containsAll(a, new int[]{3, 9}));
+        assertFalse(IngredientSets.containsAll(a, b));
+        assertTrue(IngredientSets.contains(a, 5));
+        assertFalse(IngredientSets.contains(a, 4));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.recepiesuggestor.data;
+
+import com.example.recepiesuggestor.Recipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RecipeBitsetsTest {
+
+    private static Recipe recipe(String title, String ingredients) {
+        return new Recipe(title, "", 0, ingredients, "");
+    }
+
+    @Test
+    public void withCoverage_countsAvailableRequirements() {
+        List<Recipe> recipes = Arrays.asList(
+                recipe("Toast", "bread,butter"),
+                recipe("Salad", "tomatoes,olive oil,salt,basil"),
+                recipe("Stir Fry", "oil,soy sauce"));
+        RecipeBitsets bitsets = new RecipeBitsets(recipes);
+        List<String> available = Arrays.asList("Bread", "tomato", "olive oil", "boil");
+
+        assertArrayEquals(new int[]{1, 2, 0}, bitsets.coveredCounts(bitsets.pantry(available)));
+        assertEquals(Arrays.asList(recipes.get(0), recipes.get(1)), bitsets.withCoverage(available, 0.5));
+        assertTrue(bitsets.match(available).isEmpty());
+        assertEquals(Collections.singletonList(recipes.get(0)),
+                bitsets.match(Arrays.asList("bread", "butter", "salt")));
+        assertTrue(bitsets.match(Collections.<String>emptyList()).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void withCoverage_rejectsZeroCoverage() {
+        new RecipeBitsets(Collections.singletonList(recipe("Toast", "bread"))).withCoverage(
+                Collections.singletonList("bread"), 0);
+    }
+
+    @Test
+    public void coldIngredients_areCountedOutsideTheHotRange() {
+        List<Recipe> recipes = Arrays.asList(
+                recipe("Toast", "bread,butter"),
+                recipe("Jam Toast", "bread,butter,quince jam"),
+                recipe("Butter", "butter"));
+        // Only butter, the most used ingredient, gets a bit
+        RecipeBitsets bitsets = new RecipeBitsets(RecipeSource.of(recipes), 1);
+        assertEquals(1, bitsets.getHotIngredientCount());
+        List<String> available = Arrays.asList("butter", "quince jam", "kumquat");
+
+        assertArrayEquals(new int[]{1, 2, 1}, bitsets.coveredCounts(bitsets.pantry(available)));
+        assertEquals(Collections.singletonList(recipes.get(2)), bitsets.match(available));
+    }
+
+    @Test
+    public void match_agreesWithIndexOnSyntheticRecipes() {
+        Random random = new Random(19);
+        List<String> pool = new ArrayList<>();
+        for (int i = 0; i < 300; i++) pool.add("ingredient " + i);
+        List<Recipe> recipes = new ArrayList<>();
+        for (int r = 0; r < 2000; r++) {
+            StringBuilder ingredients = new StringBuilder();
+            int n = 1 + random.nextInt(6);
+            for (int i = 0; i < n; i++) {
+                if (i > 0) ingredients.append(',');
+                ingredients.append(pool.get((int) (pool.size() * Math.pow(random.nextDouble(), 3))));
+            }
+            recipes.add(recipe("R" + r, ingredients.toString()));
+        }
+        // Default hot range, and one that leaves most ingredients cold
+        RecipeBitsets bitsets = new RecipeBitsets(recipes);
+        RecipeBitsets narrow = new RecipeBitsets(RecipeSource.of(recipes), 64);
+        RecipeIndex index = new RecipeIndex(recipes);
+        for (int trial = 0; trial < 200; trial++) {
+            List<String> available = new ArrayList<>();
+            int n = random.nextInt(60);
+            for (int i = 0; i < n; i++) available.add(pool.get(random.nextInt(pool.size())));
+            assertEquals(index.match(available), bitsets.match(available));
+            assertEquals(index.match(available), narrow.match(available));
+            assertEquals(bitsets.withCoverage(available, 0.5), narrow.withCoverage(available, 0.5));
+        }
+    }
+
+    @Test
+    public void memory_isBoundedByTheHotRange() {
+        List<Recipe> recipes = new ArrayList<>();
+        for (int r = 0; r < 1000; r++) {
+            // 1000 one-off ingredients on top of two common ones
+            recipes.add(recipe("R" + r, "salt,flour,wide vocabulary item " + r));
+        }
+        RecipeBitsets bitsets = new RecipeBitsets(recipes);
+
+        assertEquals(RecipeBitsets.DEFAULT_HOT_BITS, bitsets.getHotIngredientCount());
+        // Four words per recipe; a dense layout over 1000+ ids would need at least sixteen
+        assertTrue(bitsets.getBitsetBytes() < 1000 * 16 * 8);
+        assertEquals(Collections.singletonList(recipes.get(999)),
+                bitsets.match(Arrays.asList("salt", "flour", "wide vocabulary item 999")));
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.recepiesuggestor.data;
+
+import com.example.recepiesuggestor.Recipe;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.*;
+
+public class RecipeCatalogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final int CREME_IMAGE = 7;
+
+    /** Drawable names as the build that wrote the catalog knew them. */
+    private static final RecipeCatalog.ImageNames WRITER_IMAGES = new RecipeCatalog.ImageNames() {
+        @Override
+        public String nameOf(int resourceId) {
+            if (resourceId == CREME_IMAGE) return "com.example:drawable/creme";
+            return resourceId == RecipeDatabase.DEFAULT_IMAGE ? "android:drawable/sym_def_app_icon" : null;
+        }
+
+        @Override
+        public int idOf(String name) {
+            throw new AssertionError("The writer never resolves names");
+        }
+    };
+
+    /** A later build, where the app's own drawables got other ids. */
+    private static final RecipeCatalog.ImageNames READER_IMAGES = new RecipeCatalog.ImageNames() {
+        @Override
+        public String nameOf(int resourceId) {
+            throw new AssertionError("The reader never names ids");
+        }
+
+        @Override
+        public int idOf(String name) {
+            return name.equals("com.example:drawable/creme") ? 70 : RecipeDatabase.DEFAULT_IMAGE;
+        }
+    };
+
+    private RecipeCatalog writeAndOpen(List<Recipe> recipes) throws IOException {
+        File file = folder.newFile("recipes.catalog");
+        try (OutputStream out = new FileOutputStream(file)) {
+            RecipeCatalog.write(recipes, WRITER_IMAGES, out);
+        }
+        return RecipeCatalog.open(file, READER_IMAGES);
+    }
+
+    private static byte[] serialize(List<Recipe> recipes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RecipeCatalog.write(recipes, WRITER_IMAGES, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void open_readsBackEveryField() throws IOException {
+        List<Recipe> recipes = RecipeDatabase.getAllRecipes();
+        recipes.add(new Recipe("Crème brûlée", "", CREME_IMAGE, "Eggs, cream ,sugar,eggs", "Bake.\nChill."));
+        RecipeCatalog catalog = writeAndOpen(recipes);
+
+        assertEquals(recipes.size(), catalog.size());
+        for (int r = 0; r < recipes.size(); r++) {
+            Recipe expected = recipes.get(r);
+            Recipe actual = catalog.getRecipe(r);
+            assertEquals(expected.getTitle(), catalog.getTitle(r));
+            assertEquals(expected.getTitle(), actual.getTitle());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getImageResourceId() == CREME_IMAGE ? 70 : RecipeDatabase.DEFAULT_IMAGE,
+                    actual.getImageResourceId());
+            assertEquals(expected.getIngredients(), actual.getIngredients());
+            assertEquals(expected.getInstructions(), actual.getInstructions());
+            assertArrayEquals(IngredientVocabulary.getInstance().idsOf(Arrays.asList(expected.getIngredients().split(","))),
+                    catalog.getIngredientIds(r));
+        }
+        assertEquals(recipes.size(), catalog.asList().size());
+        assertEquals("Crème brûlée", catalog.asList().get(recipes.size() - 1).getTitle());
+    }
+
+    @Test
+    public void indexesOverCatalogAgreeWithRecipeList() throws IOException {
+        List<Recipe> recipes = RecipeDatabase.getAllRecipes();
+        RecipeCatalog catalog = writeAndOpen(recipes);
+        List<String> available = Arrays.asList("tomatoes", "basil", "mozzarella", "olive oil", "salt",
+                "eggs", "milk", "butter", "pepper", "bread");
+
+        assertEquals(titles(new RecipeIndex(recipes).match(available)),
+                titles(new RecipeIndex(catalog).match(available)));
+        assertEquals(titles(new RecipeBitsets(recipes).withCoverage(available, 0.5)),
+                titles(new RecipeBitsets(catalog).withCoverage(available, 0.5)));
+    }
+
+    @Test
+    public void header_changesWithContentOfTheSameSize() throws IOException {
+        List<Recipe> recipes = RecipeDatabase.getAllRecipes();
+        byte[] original = serialize(recipes);
+        Recipe first = recipes.get(0);
+        recipes.set(0, new Recipe(first.getTitle(), first.getDescription(), first.getImageResourceId(),
+                first.getIngredients(), first.getInstructions().replace('1', '9')));
+        byte[] edited = serialize(recipes);
+
+        assertEquals(original.length, edited.length);
+        assertArrayEquals(RecipeCatalog.readHeader(new ByteArrayInputStream(original)),
+                RecipeCatalog.readHeader(new ByteArrayInputStream(serialize(RecipeDatabase.getAllRecipes()))));
+        assertFalse(Arrays.equals(RecipeCatalog.readHeader(new ByteArrayInputStream(original)),
+                RecipeCatalog.readHeader(new ByteArrayInputStream(edited))));
+    }
+
+    @Test(expected = IOException.class)
+    public void open_rejectsForeignFile() throws IOException {
+        new RecipeCatalog(ByteBuffer.wrap(new byte[64]), READER_IMAGES);
+    }
+
+    @Test(expected = IOException.class)
+    public void open_rejectsTruncatedHeader() throws IOException {
+        byte[] bytes = serialize(RecipeDatabase.getAllRecipes());
+        new RecipeCatalog(ByteBuffer.wrap(Arrays.copyOf(bytes, 40)), READER_IMAGES);
+    }
+
+    @Test(expected = IOException.class)
+    public void open_rejectsChecksumMismatch() throws IOException {
+        byte[] bytes = serialize(RecipeDatabase.getAllRecipes());
+        bytes[bytes.length - 1] ^= 1;
+        new RecipeCatalog(ByteBuffer.wrap(bytes), READER_IMAGES);
+    }
+
+    @Test(expected = IOException.class)
+    public void open_rejectsStringOutsideItsSection() throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(serialize(RecipeDatabase.getAllRecipes()));
+        // First record's title
+        bytes.putInt(bytes.getInt(20), bytes.capacity());
+        new RecipeCatalog(withChecksum(bytes), READER_IMAGES);
+    }
+
+    @Test(expected = IOException.class)
+    public void open_rejectsIdsOutsideTheirSection() throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(serialize(RecipeDatabase.getAllRecipes()));
+        // First record's id count (field 6 of 7)
+        bytes.putInt(bytes.getInt(20) + 4 * 6, 1 << 20);
+        new RecipeCatalog(withChecksum(bytes), READER_IMAGES);
+    }
+
+    /** Re-signs an edited catalog so only the reference checks can reject it. */
+    private static ByteBuffer withChecksum(ByteBuffer bytes) {
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes.array(), RecipeCatalog.HEADER_BYTES, bytes.capacity() - RecipeCatalog.HEADER_BYTES);
+        bytes.putInt(32, (int) checksum.getValue());
+        return bytes;
+    }
+
+    private static List<String> titles(List<Recipe> recipes) {
+        List<String> titles = new ArrayList<>();
+        for (Recipe recipe : recipes) titles.add(recipe.getTitle());
+        return titles;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.recepiesuggestor.data;
+
+import com.example.recepiesuggestor.Recipe;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RecipeCatalogToolTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final RecipeCatalog.ImageNames APP_IMAGES = new RecipeCatalog.ImageNames() {
+        @Override
+        public String nameOf(int resourceId) {
+            throw new AssertionError("The app never names ids");
+        }
+
+        @Override
+        public int idOf(String name) {
+            return name.equals("android:drawable/sym_def_app_icon") ? RecipeDatabase.DEFAULT_IMAGE : 0;
+        }
+    };
+
+    /** The recipe JSON the build packs into assets (src/main/recipes). */
+    private static String bundledJson() throws IOException {
+        try (InputStream in = RecipeCatalogToolTest.class.getResourceAsStream("/recipes.json")) {
+            assertNotNull("recipes.json not on the test classpath", in);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            for (int n; (n = in.read(chunk)) > 0; ) bytes.write(chunk, 0, n);
+            return bytes.toString("UTF-8");
+        }
+    }
+
+    @Test
+    public void generatedCatalog_roundTripsTheBundledJson() throws Exception {
+        String json = bundledJson();
+        File file = folder.newFile("recipes.catalog");
+        try (OutputStream out = new FileOutputStream(file)) {
+            RecipeCatalogTool.convert(json, out);
+        }
+
+        RecipeCatalog catalog = RecipeCatalog.open(file, APP_IMAGES);
+        JSONArray expected = new JSONArray(json);
+        assertTrue(expected.length() > 0);
+        assertEquals(expected.length(), catalog.size());
+        for (int r = 0; r < expected.length(); r++) {
+            JSONObject recipe = expected.getJSONObject(r);
+            Recipe actual = catalog.getRecipe(r);
+            assertEquals(recipe.getString("title"), actual.getTitle());
+            assertEquals(recipe.getString("description"), actual.getDescription());
+            assertEquals(recipe.getString("ingredients"), actual.getIngredients());
+            assertEquals(recipe.getString("instructions"), actual.getInstructions());
+            assertEquals(RecipeDatabase.DEFAULT_IMAGE, actual.getImageResourceId());
+        }
+        // Matching over the generated catalog works like over parsed recipes
+        List<String> available = new ArrayList<>();
+        for (String ingredient : expected.getJSONObject(0).getString("ingredients").split(",")) available.add(ingredient);
+        assertEquals(expected.getJSONObject(0).getString("title"),
+                new RecipeIndex(catalog).match(available).get(0).getTitle());
+    }
+
+    @Test
+    public void parse_storesEachImageNameOnce() throws IOException {
+        List<String> images = new ArrayList<>();
+        List<Recipe> recipes = RecipeCatalogTool.parse("["
+                + recipe("A", "\"image\": \"com.example:drawable/soup\",")
+                + "," + recipe("B", "")
+                + "," + recipe("C", "\"image\": \"com.example:drawable/soup\",") + "]", images);
+
+        assertEquals(1, images.size());
+        assertEquals(1, recipes.get(0).getImageResourceId());
+        assertEquals(0, recipes.get(1).getImageResourceId());
+        assertEquals(1, recipes.get(2).getImageResourceId());
+    }
+
+    @Test
+    public void parse_namesTheBrokenRecipe() {
+        try {
+            RecipeCatalogTool.parse("[" + recipe("A", "") + ", {\"title\": \"B\"}]", new ArrayList<String>());
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Recipe 1"));
+        }
+    }
+
+    private static String recipe(String title, String extra) {
+        return "{\"title\": \"" + title + "\", \"description\": \"\", " + extra
+                + " \"ingredients\": \"salt\", \"instructions\": \"\"}";
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.recepiesuggestor.data;
+
+import com.example.recepiesuggestor.Recipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RecipeIndexTest {
+
+    private static final String[] AVAILABLE_POOL = {
+            "tomatoes", "tomato", "basil", "mozzarella", "olive oil", "oil", "salt", "eggs", "egg", "milk",
+            "butter", "peanut butter", "pepper", "bell pepper", "banana", "honey", "ice", "apple", "bread",
+            "cheese", "carrot", "broccoli", "onion", "soy sauce", "sauce", "pasta", "garlic", "chicken",
+            "lettuce", "cucumber", "Milk", "pea", "table", "Olive Oil",
+    };
+
+    /** A nested loop over the ingredient strings, comparing normalized names. */
+    private static boolean canMakeRecipe(Recipe recipe, List<String> availableIngredients) {
+        for (String required : recipe.getIngredients().split(",")) {
+            required = IngredientVocabulary.normalize(required);
+            boolean found = false;
+            for (String available : availableIngredients) {
+                if (IngredientVocabulary.normalize(available).equals(required)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private static List<Recipe> nestedLoop(List<Recipe> recipes, List<String> available) {
+        List<Recipe> matches = new ArrayList<>();
+        for (Recipe recipe : recipes) {
+            if (canMakeRecipe(recipe, available)) matches.add(recipe);
+        }
+        return matches;
+    }
+
+    private static Recipe recipe(String title, String ingredients) {
+        return new Recipe(title, "", 0, ingredients, "");
+    }
+
+    @Test
+    public void match_comparesNormalizedNames() {
+        List<Recipe> recipes = Arrays.asList(
+                recipe("Toast", "bread,butter"),
+                recipe("Salad", "tomatoes, olive oil ,salt"),
+                recipe("Stir Fry", "oil,soy sauce"),
+                recipe("Eggs", "eggs,water"));
+        RecipeIndex index = new RecipeIndex(recipes);
+
+        assertEquals(Collections.singletonList(recipes.get(0)),
+                index.match(Arrays.asList("Bread", "Butter")));
+        // No partial names: peanut butter is not butter, olive oil is not oil, boil is not oil
+        assertTrue(index.match(Arrays.asList("bread", "peanut butter")).isEmpty());
+        assertEquals(Collections.singletonList(recipes.get(1)),
+                index.match(Arrays.asList("tomato", "Olive  Oil", "salt", "soy sauce")));
+        assertTrue(index.match(Arrays.asList("boil", "soy sauce", "sauce")).isEmpty());
+        assertEquals(Collections.singletonList(recipes.get(3)),
+                index.match(Arrays.asList("egg", "waters")));
+        assertTrue(index.match(Collections.<String>emptyList()).isEmpty());
+        assertEquals(9, index.getIngredientCount());
+    }
+
+    @Test
+    public void match_countsRepeatedIngredientOnce() {
+        Recipe twice = recipe("Double", "egg,egg,milk");
+        RecipeIndex index = new RecipeIndex(Collections.singletonList(twice));
+        assertEquals(Collections.singletonList(twice), index.match(Arrays.asList("eggs", "milk")));
+        assertTrue(index.match(Collections.singletonList("eggs")).isEmpty());
+    }
+
+    @Test
+    public void match_agreesWithNestedLoopOnDatabase() {
+        List<Recipe> recipes = RecipeDatabase.getAllRecipes();
+        RecipeIndex index = new RecipeIndex(recipes);
+        Random random = new Random(7);
+        for (int trial = 0; trial < 2000; trial++) {
+            List<String> available = new ArrayList<>();
+            int n = random.nextInt(AVAILABLE_POOL.length);
+            for (int i = 0; i < n; i++) available.add(AVAILABLE_POOL[random.nextInt(AVAILABLE_POOL.length)]);
+            assertEquals(available.toString(), nestedLoop(recipes, available), index.match(available));
+        }
+        List<String> everything = Arrays.asList(AVAILABLE_POOL);
+        assertEquals(nestedLoop(recipes, everything), index.match(everything));
+    }
+
+    @Test
+    public void match_agreesWithNestedLoopOnSyntheticRecipes() {
+        Random random = new Random(11);
+        List<Recipe> recipes = new ArrayList<>();
+        for (int r = 0; r < 500; r++) {
+            StringBuilder ingredients = new StringBuilder();
+            int n = 1 + random.nextInt(5);
+            for (int i = 0; i < n; i++) {
+                if (i > 0) ingredients.append(random.nextBoolean() ? "," : ", ");
+                ingredients.append(AVAILABLE_POOL[random.nextInt(AVAILABLE_POOL.length)]);
+            }
+            recipes.add(recipe("R" + r, ingredients.toString()));
+        }
+        RecipeIndex index = new RecipeIndex(recipes);
+        for (int trial = 0; trial < 500; trial++) {
+            List<String> available = new ArrayList<>();
+            int n = random.nextInt(12);
+            for (int i = 0; i < n; i++) available.add(AVAILABLE_POOL[random.nextInt(AVAILABLE_POOL.length)]);
+            assertEquals(nestedLoop(recipes, available), index.match(available));
+        }
+    }
+
+    @Test
+    public void rank_ordersByCoverageAndListsMissing() {
+        List<Recipe> recipes = Arrays.asList(
+                recipe("Eggs", "eggs,milk,butter,salt,pepper"),
+                recipe("Smoothie", "banana,milk,honey,ice"),
+                recipe("Toast", "bread,cheese,butter"),
+                recipe("Salad", "lettuce,cucumber"));
+        RecipeIndex index = new RecipeIndex(recipes);
+
+        List<RecipeIndex.RankedRecipe> ranked = index.rank(Arrays.asList("eggs", "milk", "banana"), 10,
+                RecipeIndex.Scoring.DEFAULT);
+
+        // Only staples missing from the eggs; two real ingredients missing from the smoothie
+        assertEquals(2, ranked.size());
+        assertSame(recipes.get(0), ranked.get(0).recipe);
+        assertEquals(new HashSet<>(Arrays.asList("butter", "salt", "pepper")), new HashSet<>(ranked.get(0).missing));
+        assertEquals(2 / 2.75, ranked.get(0).coverage, 1e-9);
+        assertEquals(2 / 2.75 - 0.1 * 0.75, ranked.get(0).score, 1e-9);
+        assertSame(recipes.get(1), ranked.get(1).recipe);
+        assertEquals(new HashSet<>(Arrays.asList("honey", "ice")), new HashSet<>(ranked.get(1).missing));
+        assertFalse(ranked.get(1).isComplete());
+    }
+
+    @Test
+    public void rank_completeRecipesComeFirst() {
+        List<Recipe> recipes = Arrays.asList(
+                recipe("Partial", "bread,cheese,ham"),
+                recipe("Complete", "bread,cheese"));
+        List<RecipeIndex.RankedRecipe> ranked = new RecipeIndex(recipes)
+                .rank(Arrays.asList("bread", "cheese"), 5, RecipeIndex.Scoring.DEFAULT);
+
+        assertSame(recipes.get(1), ranked.get(0).recipe);
+        assertTrue(ranked.get(0).isComplete());
+        assertEquals(1.0, ranked.get(0).score, 1e-9);
+    }
+
+    @Test
+    public void rank_keepsBestKWithTiesInListOrder() {
+        Random random = new Random(3);
+        List<Recipe> recipes = new ArrayList<>();
+        for (int r = 0; r < 300; r++) {
+            StringBuilder ingredients = new StringBuilder();
+            int n = 1 + random.nextInt(5);
+            for (int i = 0; i < n; i++) {
+                if (i > 0) ingredients.append(',');
+                ingredients.append(AVAILABLE_POOL[random.nextInt(AVAILABLE_POOL.length)]);
+            }
+            recipes.add(recipe("R" + r, ingredients.toString()));
+        }
+        RecipeIndex index = new RecipeIndex(recipes);
+        List<String> available = Arrays.asList("milk", "bread", "tomato", "salt");
+
+        List<RecipeIndex.RankedRecipe> all = index.rank(available, recipes.size(), RecipeIndex.Scoring.DEFAULT);
+        List<RecipeIndex.RankedRecipe> top = index.rank(available, 7, RecipeIndex.Scoring.DEFAULT);
+
+        assertEquals(7, top.size());
+        for (int i = 0; i < top.size(); i++) assertSame(all.get(i).recipe, top.get(i).recipe);
+        for (int i = 1; i < all.size(); i++) {
+            RecipeIndex.RankedRecipe prev = all.get(i - 1), cur = all.get(i);
+            assertTrue(prev.score > cur.score
+                    || (prev.score == cur.score && recipes.indexOf(prev.recipe) < recipes.indexOf(cur.recipe)));
+        }
+        // Every complete recipe is one the all-or-nothing match returns
+        List<Recipe> complete = new ArrayList<>();
+        for (RecipeIndex.RankedRecipe ranked : all) if (ranked.isComplete()) complete.add(ranked.recipe);
+        List<Recipe> matched = index.match(available);
+        assertEquals(matched.size(), complete.size());
+        assertTrue(complete.containsAll(matched));
+    }
+
+    @Test
+    public void queries_doNotLeakIntoLaterQueriesOnTheSameThread() {
+        List<Recipe> recipes = Arrays.asList(
+                recipe("Eggs", "eggs,milk,butter"),
+                recipe("Toast", "bread,butter"));
+        RecipeIndex small = new RecipeIndex(recipes);
+        RecipeIndex large = new RecipeIndex(RecipeDatabase.getAllRecipes());
+
+        List<RecipeIndex.RankedRecipe> first = small.rank(Arrays.asList("bread"), 5, RecipeIndex.Scoring.DEFAULT);
+        assertEquals(Collections.singletonList(recipes.get(1)), small.match(Arrays.asList("bread", "butter")));
+        large.rank(Arrays.asList("eggs", "milk", "bread", "tomato"), 5, RecipeIndex.Scoring.DEFAULT);
+        large.match(Arrays.asList("eggs", "milk", "butter", "bread"));
+        List<RecipeIndex.RankedRecipe> again = small.rank(Arrays.asList("bread"), 5, RecipeIndex.Scoring.DEFAULT);
+
+        assertEquals(first.size(), again.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertSame(first.get(i).recipe, again.get(i).recipe);
+            assertEquals(first.get(i).score, again.get(i).score, 0);
+        }
+        assertEquals(Collections.singletonList(recipes.get(1)), small.match(Arrays.asList("bread", "butter")));
+        assertTrue(small.match(Arrays.asList("bread")).isEmpty());
+    }
+
+    @Test
+    public void onlyIndexingInternsIngredients() {
+        IngredientVocabulary vocabulary = IngredientVocabulary.getInstance();
+        // A transient recipe, e.g. one parsed from a Gemini answer
+        Recipe parsed = new Recipe("Dragonfruit bowl", "", 0, "dragonfruits, kefir", "");
+        assertEquals(-1, vocabulary.idOf("dragonfruit"));
+
+        RecipeIndex index = new RecipeIndex(Collections.singletonList(parsed));
+        assertTrue(vocabulary.idOf("dragonfruit") >= 0);
+
+        // Queries look names up without adding them
+        int size = vocabulary.size();
+        assertTrue(index.match(Arrays.asList("Dragonfruit", "kefir", "durian")).contains(parsed));
+        index.rank(Arrays.asList("rambutan"), 3, new RecipeIndex.Scoring(Arrays.asList("longan"), 0.5, 0));
+        assertEquals(size, vocabulary.size());
+        assertEquals(-1, vocabulary.idOf("durian"));
+    }
+}
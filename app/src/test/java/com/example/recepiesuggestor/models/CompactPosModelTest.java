@@ -0,0 +1,118 @@
+package com.example.recepiesuggestor.models;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import opennlp.tools.postag.POSDictionary;
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.postag.POSSample;
+import opennlp.tools.postag.POSTaggerFactory;
+import opennlp.tools.postag.POSTaggerME;
+import opennlp.tools.postag.WordTagSampleStream;
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.TrainingParameters;
+
+import static org.junit.Assert.*;
+
+public class CompactPosModelTest {
+
+    private static final String[] TRAINING = {
+            "A_DT bowl_NN of_IN tomatoes_NNS sits_VBZ on_IN the_DT table_NN ._.",
+            "The_DT fridge_NN contains_VBZ milk_NN ,_, eggs_NNS and_CC butter_NN ._.",
+            "A_DT hand_NN holds_VBZ a_DT ripe_JJ banana_NN ._.",
+            "Two_CD lemons_NNS are_VBP on_IN the_DT cutting_NN board_NN ._.",
+            "A_DT jar_NN of_IN honey_NN sits_VBZ next_JJ to_TO a_DT loaf_NN of_IN bread_NN ._.",
+            "Fresh_JJ strawberries_NNS fill_VBP a_DT small_JJ white_JJ bowl_NN ._.",
+    };
+
+    private static final String[][] SENTENCES = {
+            "A bowl of eggs sits on the board .".split(" "),
+            "The table holds milk , butter and two lemons .".split(" "),
+            "Fresh bread and honey fill a jar .".split(" "),
+    };
+
+    @Test
+    public void perceptronModel_roundTripsWithIdenticalTags() throws IOException {
+        assertRoundTrip(train("PERCEPTRON", null));
+    }
+
+    @Test
+    public void maxentModel_roundTripsWithIdenticalTags() throws IOException {
+        assertRoundTrip(train("MAXENT", null));
+    }
+
+    @Test
+    public void tagDictionary_isPreserved() throws IOException {
+        POSDictionary dictionary = new POSDictionary(false);
+        dictionary.put("milk", "NN");
+        dictionary.put("holds", "VBZ");
+
+        POSModel restored = assertRoundTrip(train("PERCEPTRON", dictionary));
+
+        assertArrayEquals(new String[]{"NN"}, restored.getFactory().getTagDictionary().getTags("milk"));
+    }
+
+    @Test
+    public void readSource_identifiesFile() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompactPosModel.write(train("PERCEPTRON", null), "en-pos-perceptron.bin@1234", out);
+
+        assertEquals("en-pos-perceptron.bin@1234", CompactPosModel.readSource(ByteBuffer.wrap(out.toByteArray())));
+        assertNull(CompactPosModel.readSource(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12})));
+    }
+
+    @Test
+    public void sourceOf_changesWithContentOfTheSameSize() throws IOException {
+        String a = CompactPosModel.sourceOf("en-pos-perceptron.bin", new ByteArrayInputStream(new byte[]{1, 2, 3, 4}));
+        String same = CompactPosModel.sourceOf("en-pos-perceptron.bin", new ByteArrayInputStream(new byte[]{1, 2, 3, 4}));
+        String edited = CompactPosModel.sourceOf("en-pos-perceptron.bin", new ByteArrayInputStream(new byte[]{1, 2, 3, 5}));
+
+        assertEquals(a, same);
+        assertNotEquals(a, edited);
+        assertTrue(a.startsWith("en-pos-perceptron.bin@4:"));
+    }
+
+    @Test
+    public void supportedModel_readsMaxentArtifact() throws IOException {
+        assertTrue(CompactPosModel.isSupported(train("PERCEPTRON", null)));
+        assertTrue(CompactPosModel.isSupported(train("MAXENT", null)));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedFile_isRejected() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompactPosModel.write(train("PERCEPTRON", null), "src", out);
+        byte[] bytes = out.toByteArray();
+
+        CompactPosModel.read(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length / 2)));
+    }
+
+    private static POSModel assertRoundTrip(POSModel model) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompactPosModel.write(model, "test", out);
+
+        POSModel restored = CompactPosModel.read(ByteBuffer.wrap(out.toByteArray()));
+
+        assertTrue(CompactPosModel.tagsAgree(model, restored, SENTENCES));
+        POSTaggerME tagger = new POSTaggerME(restored);
+        assertEquals("NN", tagger.tag(SENTENCES[0])[1]);
+        return restored;
+    }
+
+    private static POSModel train(String algorithm, POSDictionary dictionary) throws IOException {
+        TrainingParameters params = TrainingParameters.defaultParams();
+        params.put(TrainingParameters.ALGORITHM_PARAM, algorithm);
+        params.put(TrainingParameters.CUTOFF_PARAM, 0);
+        params.put(TrainingParameters.ITERATIONS_PARAM, 50);
+        params.put("PrintMessages", false);
+        ObjectStream<POSSample> samples = new WordTagSampleStream(
+                new CollectionObjectStream<>(Arrays.asList(TRAINING)));
+        return POSTaggerME.train("en", samples, params, new POSTaggerFactory(null, null, dictionary));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.recepiesuggestor.models;
+
+import com.example.recepiesuggestor.utils.PerceptualHash;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DescriptionCacheTest {
+
+    private static final int W = 160, H = 120;
+
+    @Test
+    public void nearlyIdenticalFrames_hashClose_differentFramesFar() {
+        int[] shelf = scene(1);
+        int[] noisyShelf = withNoise(shelf, 6, 2);
+        int[] counter = scene(3);
+
+        long a = PerceptualHash.dHash(shelf, W, H);
+        long b = PerceptualHash.dHash(noisyShelf, W, H);
+        long c = PerceptualHash.dHash(counter, W, H);
+
+        assertTrue(PerceptualHash.distance(a, b) <= DescriptionCache.DEFAULT_MAX_DISTANCE);
+        assertTrue(PerceptualHash.distance(a, c) > DescriptionCache.DEFAULT_MAX_DISTANCE);
+    }
+
+    @Test
+    public void dHash_doesNotCarryScratchStateBetweenFrames() {
+        int[] shelf = scene(1);
+        long first = PerceptualHash.dHash(shelf, W, H);
+        PerceptualHash.dHash(scene(3), W, H);
+        PerceptualHash.dHash(scene(4), W / 2, H / 2);
+        assertEquals(first, PerceptualHash.dHash(shelf, W, H));
+    }
+
+    @Test
+    public void lookup_hitsWithinDistanceAndTtl() {
+        DescriptionCache cache = new DescriptionCache(4, 1000, 3);
+        List<String> nouns = Arrays.asList("apples", "bowl");
+        cache.put(0b1010L, nouns, 0);
+
+        assertEquals(nouns, cache.lookup(0b1011L, 500));   // 1 bit away
+        assertNull(cache.lookup(0b0101L, 500));            // 4 bits away
+        assertNull(cache.lookup(0b1010L, 1500));           // expired
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        DescriptionCache cache = new DescriptionCache(2, 10_000, 0);
+        cache.put(1L, Arrays.asList("a"), 0);
+        cache.put(2L, Arrays.asList("b"), 0);
+        cache.lookup(1L, 0);
+        cache.put(3L, Arrays.asList("c"), 0);
+
+        assertNotNull(cache.lookup(1L, 0));
+        assertNull(cache.lookup(2L, 0));
+        assertNotNull(cache.lookup(3L, 0));
+    }
+
+    @Test
+    public void staticScene_skipsMostInference() {
+        DescriptionCache cache = new DescriptionCache();
+        int[] shelf = scene(5);
+        int inferences = 0;
+        // 100 analyzed frames, one every 250 ms, of a static scene with sensor noise
+        for (int i = 0; i < 100; i++) {
+            long hash = PerceptualHash.dHash(withNoise(shelf, 4, i), W, H);
+            long now = i * 250L;
+            if (cache.lookup(hash, now) == null) {
+                inferences++;
+                cache.put(hash, Arrays.asList("milk"), now);
+            }
+        }
+        assertTrue("inferences " + inferences, inferences <= 10);
+        assertTrue(cache.getHitRate() >= 0.9f);
+    }
+
+    /** Blocky synthetic scene whose layout depends on the seed. */
+    private static int[] scene(long seed) {
+        Random random = new Random(seed);
+        int[] blocks = new int[16 * 12];
+        for (int i = 0; i < blocks.length; i++) blocks[i] = random.nextInt(256);
+        int[] pixels = new int[W * H];
+        for (int y = 0; y < H; y++) {
+            for (int x = 0; x < W; x++) {
+                int v = blocks[(y / 10) * 16 + x / 10];
+                pixels[y * W + x] = 0xFF000000 | (v << 16) | (v << 8) | v;
+            }
+        }
+        return pixels;
+    }
+
+    private static int[] withNoise(int[] pixels, int amplitude, long seed) {
+        Random random = new Random(seed);
+        int[] out = new int[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            int v = (pixels[i] & 0xFF) + random.nextInt(2 * amplitude + 1) - amplitude;
+            v = Math.max(0, Math.min(255, v));
+            out[i] = 0xFF000000 | (v << 16) | (v << 8) | v;
+        }
+        return out;
+    }
+}
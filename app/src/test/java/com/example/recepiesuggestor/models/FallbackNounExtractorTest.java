@@ -0,0 +1,66 @@
+package com.example.recepiesuggestor.models;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Golden tests for {@link FallbackNounExtractor}. fallback_nouns_golden.tsv holds describer
+ * outputs and the nouns the original per-call regex implementation extracted from them.
+ */
+public class FallbackNounExtractorTest {
+
+    @Test
+    public void matchesGoldenCorpus() throws Exception {
+        FallbackNounExtractor extractor = new FallbackNounExtractor();
+        int cases = 0;
+        for (String[] entry : readGolden()) {
+            List<String> expected = entry[1].isEmpty()
+                    ? Collections.<String>emptyList() : Arrays.asList(entry[1].split("\\|"));
+            assertEquals(entry[0], expected, extractor.extract(entry[0]));
+            cases++;
+        }
+        assertTrue(cases > 30);
+    }
+
+    @Test
+    public void keepsHeadWordOfEachMatchedPhrase() {
+        FallbackNounExtractor extractor = new FallbackNounExtractor();
+        String text = "A tray holds sliced ham. There are green olives, next to the blue cheese.";
+
+        // Ordered by pattern first, then by position
+        assertEquals(Arrays.asList("ham", "cheese", "olives"), extractor.extract(text));
+    }
+
+    @Test
+    public void fallsBackToLongWords_whenNoPatternMatches() {
+        FallbackNounExtractor extractor = new FallbackNounExtractor();
+
+        assertEquals(Arrays.asList("Eggs", "milk"), extractor.extract("Eggs, milk; 2024 ok"));
+        assertTrue(extractor.extract("").isEmpty());
+    }
+
+    private static List<String[]> readGolden() throws Exception {
+        List<String[]> entries = new ArrayList<>();
+        InputStream in = FallbackNounExtractorTest.class.getClassLoader()
+                .getResourceAsStream("fallback_nouns_golden.tsv");
+        assertNotNull("fallback_nouns_golden.tsv missing", in);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                int tab = line.indexOf('\t');
+                entries.add(new String[]{line.substring(0, tab), line.substring(tab + 1)});
+            }
+        }
+        return entries;
+    }
+}
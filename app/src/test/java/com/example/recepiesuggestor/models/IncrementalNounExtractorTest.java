@@ -0,0 +1,76 @@
+package com.example.recepiesuggestor.models;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IncrementalNounExtractorTest {
+
+    /** Treats every word longer than three letters as a noun and records what it was given. */
+    private static final class RecordingExtractor implements IncrementalNounExtractor.SentenceExtractor {
+        final List<String> inputs = new ArrayList<>();
+
+        @Override
+        public List<String> extract(String sentence) {
+            inputs.add(sentence);
+            List<String> nouns = new ArrayList<>();
+            for (String w : sentence.split("[^A-Za-z]+")) {
+                if (w.length() > 3) nouns.add(w.toLowerCase());
+            }
+            return nouns;
+        }
+    }
+
+    @Test
+    public void wordSplitAcrossChunks_isNotExtractedPartially() {
+        RecordingExtractor sentences = new RecordingExtractor();
+        IncrementalNounExtractor extractor = new IncrementalNounExtractor(sentences);
+
+        assertEquals(Collections.emptyList(), extractor.append("A bowl of tomat"));
+        assertEquals(Collections.emptyList(), extractor.append("oes and"));
+        assertEquals(Arrays.asList("bowl", "tomatoes", "onions"), extractor.append(" onions. A jar of hon"));
+
+        assertEquals(Collections.singletonList("A bowl of tomatoes and onions."), sentences.inputs);
+        assertTrue(extractor.append("ey").isEmpty());
+        assertEquals(Collections.singletonList("honey"), extractor.finish());
+    }
+
+    @Test
+    public void emitsOnlyNewNounsPerDescription() {
+        RecordingExtractor sentences = new RecordingExtractor();
+        IncrementalNounExtractor extractor = new IncrementalNounExtractor(sentences);
+
+        extractor.append("Milk and eggs. ");
+        List<String> delta = extractor.append("More milk and butter. ");
+        List<String> rest = extractor.finish();
+
+        assertEquals(Arrays.asList("more", "butter"), delta);
+        assertTrue(rest.isEmpty());
+        assertEquals(Arrays.asList("milk", "eggs", "more", "butter"), extractor.getNouns());
+        assertEquals(2, extractor.getExtractedSentenceCount());
+    }
+
+    @Test
+    public void finish_flushesTrailingSentence() {
+        RecordingExtractor sentences = new RecordingExtractor();
+        IncrementalNounExtractor extractor = new IncrementalNounExtractor(sentences);
+
+        assertTrue(extractor.append("A plate with 3.").isEmpty());
+        assertTrue(extractor.append("5 lemons").isEmpty());
+
+        assertEquals(Arrays.asList("plate", "with", "lemons"), extractor.finish());
+        assertEquals(Collections.singletonList("A plate with 3.5 lemons"), sentences.inputs);
+    }
+
+    @Test
+    public void splitSentences_usesSameTerminatorRule() {
+        assertEquals(Arrays.asList("A bowl of 3.5 lemons.", "Some milk!", "Eggs?", "line one", "tail"),
+                IncrementalNounExtractor.splitSentences(" A bowl of 3.5 lemons. Some milk! Eggs?\nline one\n  tail"));
+        assertTrue(IncrementalNounExtractor.splitSentences("  ").isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.recepiesuggestor.models;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IngredientLexiconTest {
+
+    private static final IngredientLexicon LEXICON = new IngredientLexicon(Arrays.asList(
+            "# comment",
+            "butter",
+            "peanut butter",
+            "oil",
+            "olive oil",
+            "olive",
+            "soy sauce",
+            "tomato",
+            "cherry tomato",
+            "berry",
+            "loaf",
+            "egg",
+            "",
+            "scallion = green onion",
+            "green onion"));
+
+    private static List<String> ingredients(String sentence) {
+        List<String> names = new ArrayList<>();
+        for (IngredientLexicon.Match m : LEXICON.match(sentence.split("[\\s,.]+"))) names.add(m.ingredient);
+        return names;
+    }
+
+    @Test
+    public void load_skipsCommentsAndBlankLines() throws Exception {
+        IngredientLexicon lexicon = IngredientLexicon.load(new ByteArrayInputStream(
+                "# fruit\napple\n\nbanana\n".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2, lexicon.size());
+        assertEquals(13, LEXICON.size());
+    }
+
+    @Test
+    public void match_prefersLongestEntry() {
+        assertEquals(Arrays.asList("peanut butter", "olive oil", "soy sauce"),
+                ingredients("a jar of peanut butter, olive oil and soy sauce"));
+        assertEquals(Arrays.asList("butter", "olive"), ingredients("butter next to an olive"));
+    }
+
+    @Test
+    public void match_reportsTokenSpans() {
+        List<IngredientLexicon.Match> matches = LEXICON.match(new String[]{"two", "cherry", "tomatoes"});
+        assertEquals(1, matches.size());
+        assertEquals(1, matches.get(0).start);
+        assertEquals(3, matches.get(0).end);
+        assertEquals("cherry tomato", matches.get(0).ingredient);
+    }
+
+    @Test
+    public void match_normalizesPlurals() {
+        assertEquals(Arrays.asList("tomato", "loaf", "berry", "egg", "olive"),
+                ingredients("Tomatoes, loaves, berries, eggs and olives"));
+    }
+
+    @Test
+    public void match_mapsAliases() {
+        assertEquals(Arrays.asList("green onion"), ingredients("chopped scallions"));
+    }
+
+    @Test
+    public void match_dropsNonFoodWords() {
+        assertTrue(ingredients("a person sits at a wooden table near the window").isEmpty());
+        // A prefix of an entry alone is not an ingredient
+        assertEquals(Arrays.asList("butter"), ingredients("peanut shells and butter"));
+    }
+
+    @Test
+    public void match_isCaseInsensitive() {
+        assertEquals(Arrays.asList("peanut butter"), ingredients("Peanut BUTTER"));
+    }
+
+    @Test
+    public void lookup_requiresWholePhrase() {
+        assertEquals("olive oil", LEXICON.lookup("  Olive   Oil "));
+        assertEquals("tomato", LEXICON.lookup("tomatoes"));
+        assertNull(LEXICON.lookup("olive oil bottle"));
+        assertNull(LEXICON.lookup("table"));
+    }
+}
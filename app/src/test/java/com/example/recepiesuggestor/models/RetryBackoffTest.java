@@ -0,0 +1,44 @@
+package com.example.recepiesuggestor.models;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RetryBackoffTest {
+
+    @Test
+    public void failedAttempt_isRetriedAfterGrowingDelays() {
+        RetryBackoff backoff = new RetryBackoff(1_000, 5_000);
+        assertTrue(backoff.isDue(0));
+
+        backoff.onFailure(0);
+        assertFalse(backoff.isDue(999));
+        assertTrue(backoff.isDue(1_000));
+
+        backoff.onFailure(1_000);
+        assertEquals(3_000, backoff.getRetryAt());
+        backoff.onFailure(3_000);
+        assertEquals(7_000, backoff.getRetryAt());
+        // Capped
+        backoff.onFailure(7_000);
+        assertEquals(12_000, backoff.getRetryAt());
+        assertEquals(4, backoff.getFailureCount());
+    }
+
+    @Test
+    public void success_resetsTheDelay() {
+        RetryBackoff backoff = new RetryBackoff(1_000, 60_000);
+        backoff.onFailure(0);
+        backoff.onFailure(1_000);
+        backoff.onSuccess();
+
+        assertTrue(backoff.isDue(1_500));
+        backoff.onFailure(2_000);
+        assertEquals(3_000, backoff.getRetryAt());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMaxBelowInitial() {
+        new RetryBackoff(2_000, 1_000);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.recepiesuggestor.models;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SentenceNounCacheTest {
+
+    @Test
+    public void normalize_ignoresCaseAndWhitespace() {
+        assertEquals("a bowl of apples on a wooden table.",
+                SentenceNounCache.normalize("  A bowl of\tapples  on a\nwooden table. "));
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        SentenceNounCache cache = new SentenceNounCache(4);
+        String key = SentenceNounCache.normalize("A bowl of apples.");
+
+        assertNull(cache.get(key));
+        cache.put(key, Arrays.asList("bowl", "apples"));
+
+        assertEquals(Arrays.asList("bowl", "apples"), cache.get(SentenceNounCache.normalize("a  bowl of Apples.")));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void returnsCopies() {
+        SentenceNounCache cache = new SentenceNounCache(4);
+        cache.put("k", Arrays.asList("milk"));
+
+        List<String> first = cache.get("k");
+        first.add("eggs");
+
+        assertEquals(Arrays.asList("milk"), cache.get("k"));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        SentenceNounCache cache = new SentenceNounCache(2);
+        cache.put("a", Arrays.asList("apple"));
+        cache.put("b", Arrays.asList("bread"));
+        cache.get("a");
+        cache.put("c", Arrays.asList("cheese"));
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.recepiesuggestor.models;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TaggerPoolTest {
+
+    @Test
+    public void reusesReleasedInstance() {
+        TaggerPool<Object> pool = new TaggerPool<>(Object::new, 2);
+
+        Object first = pool.acquire();
+        pool.release(first);
+
+        assertSame(first, pool.acquire());
+        assertEquals(1, pool.getCreatedCount());
+    }
+
+    @Test
+    public void keepsAtMostMaxIdle() {
+        TaggerPool<Object> pool = new TaggerPool<>(Object::new, 2);
+        Object a = pool.acquire(), b = pool.acquire(), c = pool.acquire();
+
+        pool.release(a);
+        pool.release(b);
+        pool.release(c);
+
+        assertEquals(3, pool.getCreatedCount());
+        assertEquals(2, pool.getIdleCount());
+    }
+
+    @Test
+    public void concurrentCallers_neverShareAnInstance() throws Exception {
+        final int threads = 4;
+        TaggerPool<Object> pool = new TaggerPool<>(Object::new, threads);
+        Set<Object> busy = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>()));
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 5000; i++) {
+                    Object tagger = pool.acquire();
+                    if (!busy.add(tagger)) overlaps.incrementAndGet();
+                    busy.remove(tagger);
+                    pool.release(tagger);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(0, overlaps.get());
+        // Instances are reused rather than created per call
+        assertTrue(pool.getCreatedCount() < 100);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.recepiesuggestor.models;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TileScheduleTest {
+
+    @Test
+    public void nextTile_cyclesThroughGrid() {
+        TileSchedule schedule = new TileSchedule(2, 2, 0.2f);
+
+        int[] order = new int[6];
+        for (int i = 0; i < order.length; i++) order[i] = schedule.nextTile();
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 0, 1}, order);
+    }
+
+    @Test
+    public void onTileDescribed_mergesNounsOncePerSweep() {
+        TileSchedule schedule = new TileSchedule(3, 1, 0f);
+
+        assertNull(schedule.onTileDescribed(0, Arrays.asList("apple", "milk")));
+        assertNull(schedule.onTileDescribed(1, Collections.<String>emptyList()));
+        // Describing a tile twice does not complete the sweep early
+        assertNull(schedule.onTileDescribed(1, Collections.singletonList("egg")));
+        List<String> merged = schedule.onTileDescribed(2, Arrays.asList("milk", "butter"));
+
+        assertEquals(Arrays.asList("apple", "milk", "egg", "butter"), merged);
+        assertEquals(1, schedule.getCompletedSweeps());
+        assertNull(schedule.onTileDescribed(0, Collections.singletonList("bread")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFullOverlap() {
+        new TileSchedule(2, 2, 1f);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.recepiesuggestor.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Feeds synthetic 30 fps sensor timestamps with gaps where the analyzer was busy.
+ */
+public class FrameGapCounterTest {
+
+    private static final long FRAME_NS = 33_333_333;
+
+    @Test
+    public void steadyFrames_dropNothing() {
+        FrameGapCounter counter = new FrameGapCounter();
+        for (int i = 0; i < 100; i++) {
+            // A little jitter around the frame period
+            assertEquals(0, counter.onFrame(i * FRAME_NS + (i % 3) * 2_000_000));
+        }
+        assertEquals(0, counter.getDroppedCount());
+    }
+
+    @Test
+    public void gaps_countTheSkippedFrames() {
+        FrameGapCounter counter = new FrameGapCounter();
+        long t = 0;
+        for (int i = 0; i < 10; i++) counter.onFrame(t += FRAME_NS);
+        // A slow inference: CameraX delivered only the latest of four frames
+        assertEquals(3, counter.onFrame(t += 4 * FRAME_NS));
+        assertEquals(0, counter.onFrame(t += FRAME_NS));
+        assertEquals(1, counter.onFrame(t += 2 * FRAME_NS));
+        assertEquals(4, counter.getDroppedCount());
+    }
+
+    @Test
+    public void lowerFrameRate_isNotCountedOnceTheWindowHasPassed() {
+        FrameGapCounter counter = new FrameGapCounter();
+        long t = 0;
+        for (int i = 0; i < 10; i++) counter.onFrame(t += FRAME_NS);
+        // Low light halves the frame rate
+        for (int i = 0; i < FrameGapCounter.WINDOW; i++) counter.onFrame(t += 2 * FRAME_NS);
+        long before = counter.getDroppedCount();
+        assertTrue(before <= FrameGapCounter.WINDOW);
+        for (int i = 0; i < 50; i++) assertEquals(0, counter.onFrame(t += 2 * FRAME_NS));
+    }
+
+    @Test
+    public void rebind_restartsWithoutCounting() {
+        FrameGapCounter counter = new FrameGapCounter();
+        counter.onFrame(5_000 * FRAME_NS);
+        assertEquals(0, counter.onFrame(10 * FRAME_NS));
+        assertEquals(0, counter.onFrame(11 * FRAME_NS));
+        assertEquals(0, counter.getDroppedCount());
+    }
+}
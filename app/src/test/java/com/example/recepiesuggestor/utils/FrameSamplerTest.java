@@ -0,0 +1,92 @@
+package com.example.recepiesuggestor.utils;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Drives the samplers with synthetic 30 fps frame sequences.
+ */
+public class FrameSamplerTest {
+
+    private static final long FRAME_MS = 33;
+
+    @Test
+    public void fixedInterval_analyzesOneFrameInN() {
+        FixedIntervalSampler sampler = new FixedIntervalSampler(8);
+        int analyzed = 0;
+        for (int i = 0; i < 80; i++) {
+            if (sampler.shouldAnalyze(i * FRAME_MS, 0f)) analyzed++;
+        }
+        assertEquals(10, analyzed);
+    }
+
+    @Test
+    public void staticScene_isOnlyRefreshedAfterIdleTimeout() {
+        AdaptiveFrameSampler sampler = new AdaptiveFrameSampler(250, 5000, 0.12f);
+        SceneChangeDetector detector = new SceneChangeDetector();
+        ByteBuffer shelf = frame(64, 48, 90);
+
+        int analyzed = 0;
+        for (int i = 0; i < 30 * 10; i++) { // 10 seconds of camera
+            if (analyze(sampler, detector, shelf, i * FRAME_MS)) analyzed++;
+        }
+        // first frame plus one refresh per 5 s idle window
+        assertEquals(2, analyzed);
+    }
+
+    @Test
+    public void sceneChange_isAnalyzedOnceMinimumIntervalPassed() {
+        AdaptiveFrameSampler sampler = new AdaptiveFrameSampler(250, 5000, 0.12f);
+        SceneChangeDetector detector = new SceneChangeDetector();
+        ByteBuffer dark = frame(64, 48, 30);
+        ByteBuffer bright = frame(64, 48, 220);
+
+        assertTrue(analyze(sampler, detector, dark, 0));
+        assertFalse(analyze(sampler, detector, bright, 100));  // too soon
+        assertTrue(analyze(sampler, detector, bright, 300));
+        assertFalse(analyze(sampler, detector, bright, 600));  // nothing changed since
+    }
+
+    @Test
+    public void slowInference_stretchesInterval() {
+        AdaptiveFrameSampler sampler = new AdaptiveFrameSampler(250, 5000, 0.12f);
+        sampler.onInferenceLatency(1200);
+        assertEquals(1200, sampler.currentIntervalMs());
+
+        assertTrue(sampler.shouldAnalyze(0, 1f));
+        assertFalse(sampler.shouldAnalyze(1000, 1f));
+        assertTrue(sampler.shouldAnalyze(1300, 1f));
+
+        // moving average recovers as the model speeds up
+        for (int i = 0; i < 20; i++) sampler.onInferenceLatency(100);
+        assertEquals(250, sampler.currentIntervalMs());
+    }
+
+    @Test
+    public void detector_reportsDistanceBetweenHistograms() {
+        SceneChangeDetector detector = new SceneChangeDetector();
+        assertEquals(1f, detector.measure(frame(64, 48, 10), 64, 1, 64, 48), 0f);
+        detector.markAnalyzed();
+        assertEquals(0f, detector.measure(frame(64, 48, 10), 64, 1, 64, 48), 0f);
+        assertEquals(1f, detector.measure(frame(64, 48, 250), 64, 1, 64, 48), 0f);
+    }
+
+    private static boolean analyze(FrameSampler sampler, SceneChangeDetector detector,
+                                   ByteBuffer luma, long timestampMs) {
+        float change = detector.measure(luma, 64, 1, 64, 48);
+        if (sampler.shouldAnalyze(timestampMs, change)) {
+            detector.markAnalyzed();
+            return true;
+        }
+        return false;
+    }
+
+    private static ByteBuffer frame(int w, int h, int luma) {
+        byte[] y = new byte[w * h];
+        java.util.Arrays.fill(y, (byte) luma);
+        return ByteBuffer.wrap(y);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.recepiesuggestor.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SizedPoolTest {
+
+    @Test
+    public void releasedItem_isReusedForSameKey() {
+        SizedPool<byte[]> pool = new SizedPool<>(2, null);
+        assertNull(pool.acquire(16));
+        byte[] b = new byte[16];
+        pool.release(16, b);
+
+        assertSame(b, pool.acquire(16));
+        assertNull(pool.acquire(32));
+        assertEquals(1, pool.getHits());
+        assertEquals(2, pool.getMisses());
+    }
+
+    @Test
+    public void overCapacity_evictsLeastRecentlyUsedKey() {
+        List<byte[]> evicted = new ArrayList<>();
+        SizedPool<byte[]> pool = new SizedPool<>(2, evicted::add);
+        byte[] a = new byte[1];
+        byte[] b = new byte[2];
+        byte[] c = new byte[3];
+        pool.release(1, a);
+        pool.release(2, b);
+        pool.release(3, c);
+
+        assertEquals(2, pool.size());
+        assertEquals(1, pool.getEvictions());
+        assertSame(a, evicted.get(0));
+        assertNull(pool.acquire(1));
+        assertSame(c, pool.acquire(3));
+    }
+
+    @Test
+    public void doubleRelease_isIgnored() {
+        SizedPool<byte[]> pool = new SizedPool<>(4, null);
+        byte[] a = new byte[8];
+        pool.release(8, a);
+        pool.release(8, a);
+
+        assertSame(a, pool.acquire(8));
+        assertNull(pool.acquire(8));
+    }
+
+    @Test
+    public void steadyState_acquireReleaseCycleHitsEveryTime() {
+        SizedPool<byte[]> pool = new SizedPool<>(2, null);
+        pool.release(64, new byte[64]);
+        for (int i = 0; i < 100; i++) {
+            byte[] frame = pool.acquire(64);
+            assertNotNull(frame);
+            pool.release(64, frame);
+        }
+        assertEquals(100, pool.getHits());
+        assertEquals(0, pool.getEvictions());
+    }
+
+    @Test
+    public void byteBuckets_roundUpToPowerOfTwo() {
+        assertEquals(1024, FramePool.bucketSize(10));
+        assertEquals(4096, FramePool.bucketSize(4096));
+        assertEquals(8192, FramePool.bucketSize(4097));
+    }
+}
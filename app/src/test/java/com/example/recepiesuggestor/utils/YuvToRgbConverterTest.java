@@ -0,0 +1,115 @@
+package com.example.recepiesuggestor.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the stride handling and colour math of {@link YuvToRgbConverter}.
+ */
+public class YuvToRgbConverterTest {
+
+    @Test
+    public void neutralChroma_givesGray() {
+        int w = 4, h = 2;
+        byte[] y = filled(w * h, 128);
+        byte[] uv = filled(w / 2, 128);
+        int[] out = new int[w * h];
+
+        YuvToRgbConverter.yuv420ToArgb(y, w, 1, uv, uv, w / 2, 1, w, h, out);
+
+        for (int p : out) assertEquals(0xFF808080, p);
+    }
+
+    @Test
+    public void extremeChroma_isClamped() {
+        int w = 2, h = 2;
+        byte[] y = filled(w * h, 255);
+        byte[] u = filled(1, 255);
+        byte[] v = filled(1, 255);
+        int[] out = new int[w * h];
+
+        YuvToRgbConverter.yuv420ToArgb(y, w, 1, u, v, 1, 1, w, h, out);
+
+        // R and B saturate, G is pulled down by both chroma terms
+        assertEquals(0xFFFF, out[0] >>> 16);
+        assertEquals(0xFF, out[0] & 0xFF);
+    }
+
+    @Test
+    public void paddedSemiPlanar_matchesTightPlanar() {
+        int w = 6, h = 4;
+        int cw = w / 2, ch = h / 2;
+
+        // Tight I420 reference planes
+        byte[] y = new byte[w * h];
+        byte[] u = new byte[cw * ch];
+        byte[] v = new byte[cw * ch];
+        for (int i = 0; i < y.length; i++) y[i] = (byte) (i * 37);
+        for (int i = 0; i < u.length; i++) {
+            u[i] = (byte) (40 + i * 19);
+            v[i] = (byte) (200 - i * 23);
+        }
+
+        // Same image as NV21 with row padding: Y row stride 8, interleaved VU with pixel stride 2
+        int yStride = 8, uvStride = 8;
+        byte[] yPadded = new byte[yStride * h];
+        for (int r = 0; r < h; r++) System.arraycopy(y, r * w, yPadded, r * yStride, w);
+        byte[] vu = new byte[uvStride * ch];
+        for (int r = 0; r < ch; r++) {
+            for (int c = 0; c < cw; c++) {
+                vu[r * uvStride + c * 2] = v[r * cw + c];
+                vu[r * uvStride + c * 2 + 1] = u[r * cw + c];
+            }
+        }
+        byte[] uView = new byte[vu.length - 1];
+        System.arraycopy(vu, 1, uView, 0, uView.length);
+
+        int[] expected = new int[w * h];
+        int[] actual = new int[w * h];
+        YuvToRgbConverter.yuv420ToArgb(y, w, 1, u, v, cw, 1, w, h, expected);
+        YuvToRgbConverter.yuv420ToArgb(yPadded, yStride, 1, uView, vu, uvStride, 2, w, h, actual);
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void scaled_rotatesRegionIntoUprightOrientation() {
+        // 3x2 sensor frame, rotated 90 degrees clockwise into a 2x3 upright frame
+        byte[] y = {0, 10, 20, 30, 40, 50};
+        byte[] uv = filled(2, 128);
+        int[] out = new int[6];
+
+        YuvToRgbConverter.yuv420ToArgbScaled(y, 3, 1, uv, uv, 2, 1,
+                3, 2, 90, 0, 0, 2, 3, 2, 3, out);
+
+        assertArrayEquals(new int[]{30, 0, 40, 10, 50, 20}, grayLevels(out));
+    }
+
+    @Test
+    public void scaled_downscalesAndCropsRegion() {
+        int w = 4, h = 4;
+        byte[] y = new byte[w * h];
+        for (int i = 0; i < y.length; i++) y[i] = (byte) (i * 10);
+        byte[] uv = filled(4, 128);
+        int[] out = new int[2];
+
+        // Right half (2x4) down to 1x2, sampling the centre of each 2x2 block
+        YuvToRgbConverter.yuv420ToArgbScaled(y, w, 1, uv, uv, 2, 1,
+                w, h, 0, 2, 0, 2, 4, 1, 2, out);
+
+        assertArrayEquals(new int[]{70, 150}, grayLevels(out));
+    }
+
+    private static int[] grayLevels(int[] argb) {
+        int[] gray = new int[argb.length];
+        for (int i = 0; i < argb.length; i++) gray[i] = argb[i] & 0xFF;
+        return gray;
+    }
+
+    private static byte[] filled(int size, int value) {
+        byte[] b = new byte[size];
+        java.util.Arrays.fill(b, (byte) value);
+        return b;
+    }
+}